@@ -0,0 +1,182 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * Inverted index from course code to the scores recorded for it.
+ *
+ * Each course has a posting list of (score, student ref) pairs kept sorted by
+ * score in two parallel primitive arrays, so counting or listing the students
+ * in a score range takes two binary searches instead of a roster scan.
+ * Student refs are small ints interned from IDs, as in GradeHistory.
+ *
+ * Scores are ordered with Double.compare. Ranges are half-open, [from, to).
+ */
+final class CourseIndex {
+    private final List<String> studentIds = new ArrayList<>();
+    private final Map<String, Integer> studentRefs = new HashMap<>();
+    private final Map<String, Postings> byCourse = new HashMap<>();
+
+    /** One course's scores, ascending, ties ordered by student ref. */
+    private static final class Postings {
+        double[] scores = new double[4];
+        int[] students = new int[4];
+        int size;
+
+        /** First position whose (score, student) is not below the given pair. */
+        int lowerBound(double score, int student) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = Double.compare(scores[mid], score);
+                if (c < 0 || (c == 0 && students[mid] < student)) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        /** First position whose score is not below {@code score}. */
+        int lowerBound(double score) {
+            return lowerBound(score, Integer.MIN_VALUE);
+        }
+
+        void insert(double score, int student) {
+            int at = lowerBound(score, student);
+            if (size == scores.length) {
+                scores = Arrays.copyOf(scores, size * 2);
+                students = Arrays.copyOf(students, size * 2);
+            }
+            System.arraycopy(scores, at, scores, at + 1, size - at);
+            System.arraycopy(students, at, students, at + 1, size - at);
+            scores[at] = score;
+            students[at] = student;
+            size++;
+        }
+
+        void remove(double score, int student) {
+            int at = lowerBound(score, student);
+            if (at == size || students[at] != student || Double.compare(scores[at], score) != 0) return;
+            System.arraycopy(scores, at + 1, scores, at, size - at - 1);
+            System.arraycopy(students, at + 1, students, at, size - at - 1);
+            size--;
+        }
+
+        /** Appends without keeping order; used only while building, see sortAll(). */
+        void append(double score, int student) {
+            if (size == scores.length) {
+                scores = Arrays.copyOf(scores, size * 2);
+                students = Arrays.copyOf(students, size * 2);
+            }
+            scores[size] = score;
+            students[size++] = student;
+        }
+
+        /**
+         * Sorts appended pairs. Each pair becomes one long (rank of its score among
+         * the distinct scores, then its ref), so a primitive sort orders both.
+         */
+        void sortAll() {
+            double[] distinct = Arrays.copyOf(scores, size);
+            Arrays.sort(distinct);
+            int n = 0;
+            for (int i = 0; i < distinct.length; i++) {
+                if (n == 0 || Double.compare(distinct[n - 1], distinct[i]) != 0) distinct[n++] = distinct[i];
+            }
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                long rank = Arrays.binarySearch(distinct, 0, n, scores[i]);
+                keys[i] = rank << 32 | (students[i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < size; i++) {
+                scores[i] = distinct[(int) (keys[i] >>> 32)];
+                students[i] = (int) keys[i];
+            }
+        }
+    }
+
+    /** Indexes every grade of every student in one pass. */
+    static CourseIndex build(Collection<Student> students) {
+        CourseIndex index = new CourseIndex();
+        for (Student s : students) {
+            int ref = index.ref(s.getId());
+            for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+                index.byCourse.computeIfAbsent(g.getKey(), c -> new Postings()).append(g.getValue(), ref);
+            }
+        }
+        for (Postings p : index.byCourse.values()) p.sortAll();
+        return index;
+    }
+
+    /* -------- Maintenance -------- */
+    void addStudent(Student s) {
+        for (Map.Entry<String, Double> g : s.getGrades().entrySet()) add(s.getId(), g.getKey(), g.getValue());
+    }
+
+    void removeStudent(Student s) {
+        for (Map.Entry<String, Double> g : s.getGrades().entrySet()) remove(s.getId(), g.getKey(), g.getValue());
+    }
+
+    /** Records {@code score}, replacing {@code previous} if the student already had one (else null). */
+    void setScore(String studentId, String courseCode, Double previous, double score) {
+        if (previous != null) remove(studentId, courseCode, previous);
+        add(studentId, courseCode, score);
+    }
+
+    private void add(String studentId, String courseCode, double score) {
+        byCourse.computeIfAbsent(courseCode, c -> new Postings()).insert(score, ref(studentId));
+    }
+
+    private void remove(String studentId, String courseCode, double score) {
+        Postings p = byCourse.get(courseCode);
+        Integer ref = studentRefs.get(studentId);
+        if (p == null || ref == null) return;
+        p.remove(score, ref);
+        if (p.size == 0) byCourse.remove(courseCode);
+    }
+
+    private int ref(String studentId) {
+        Integer ref = studentRefs.get(studentId);
+        if (ref == null) {
+            ref = studentIds.size();
+            studentIds.add(studentId);
+            studentRefs.put(studentId, ref);
+        }
+        return ref;
+    }
+
+    /* -------- Queries -------- */
+    /** Number of scores in [from, to) for the course. */
+    int count(String courseCode, double from, double to) {
+        Postings p = byCourse.get(courseCode);
+        if (p == null) return 0;
+        return Math.max(0, p.lowerBound(to) - p.lowerBound(from));
+    }
+
+    /** Number of students with a score for the course. */
+    int count(String courseCode) {
+        Postings p = byCourse.get(courseCode);
+        return p == null ? 0 : p.size;
+    }
+
+    /** IDs of the students with a score in [from, to), lowest score first. */
+    List<String> studentIds(String courseCode, double from, double to) {
+        Postings p = byCourse.get(courseCode);
+        return p == null ? new ArrayList<>() : ids(p, p.lowerBound(from), p.lowerBound(to));
+    }
+
+    /** IDs of every student with a score for the course, lowest score first. */
+    List<String> studentIds(String courseCode) {
+        Postings p = byCourse.get(courseCode);
+        return p == null ? new ArrayList<>() : ids(p, 0, p.size);
+    }
+
+    Set<String> courses() { return Collections.unmodifiableSet(byCourse.keySet()); }
+
+    private List<String> ids(Postings p, int from, int to) {
+        List<String> ids = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) ids.add(studentIds.get(p.students[i]));
+        return ids;
+    }
+}
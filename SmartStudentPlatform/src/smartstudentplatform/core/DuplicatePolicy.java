@@ -0,0 +1,13 @@
+package smartstudentplatform.core;
+
+/**
+ * What a bulk load does with a row whose ID has already been seen.
+ */
+public enum DuplicatePolicy {
+    /** Keep the first record and ignore the later one. */
+    SKIP,
+    /** The later record replaces the earlier one, keeping its position. */
+    REPLACE,
+    /** The later name and CGPA win and the grade maps are combined (later scores win). */
+    MERGE
+}
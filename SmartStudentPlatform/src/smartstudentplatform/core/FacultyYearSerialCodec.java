@@ -0,0 +1,65 @@
+package smartstudentplatform.core;
+
+/**
+ * Packs IDs made of 1-4 faculty letters, a four-digit year from 1900 to 2155
+ * and a 1-9 digit serial, e.g. COS2021000042, into 62 bits:
+ *
+ *   letters  4 x 5 bits  A-Z as 1-26, 0 for unused trailing places
+ *   year     8 bits      year - 1900
+ *   serial   30 bits     the serial's value
+ *   digits   4 bits      how many digits the serial has, so leading zeros survive
+ *
+ * Letters are packed case-insensitively, matching how IDs are compared.
+ */
+public final class FacultyYearSerialCodec implements IdCodec {
+    private static final int MAX_LETTERS = 4;
+    private static final int MIN_YEAR = 1900, MAX_YEAR = MIN_YEAR + 255;
+    private static final int MAX_SERIAL_DIGITS = 9;
+
+    @Override
+    public long pack(String id) {
+        int n = id.length();
+        if (n < 6 || n > MAX_LETTERS + 4 + MAX_SERIAL_DIGITS) return UNPACKED;
+
+        int i = 0;
+        long letters = 0;
+        for (; i < n; i++) {
+            int v = (id.charAt(i) | 0x20) - 'a' + 1; // ASCII letters of either case to 1-26
+            if (v < 1 || v > 26) break;
+            letters = letters << 5 | v;
+        }
+        int letterCount = i;
+        if (letterCount == 0 || letterCount > MAX_LETTERS) return UNPACKED;
+        letters <<= 5 * (MAX_LETTERS - letterCount);
+
+        int digitCount = n - letterCount - 4;
+        if (digitCount < 1 || digitCount > MAX_SERIAL_DIGITS) return UNPACKED;
+        long year = 0, serial = 0;
+        for (int end = i + 4; i < end; i++) {
+            int d = id.charAt(i) - '0';
+            if (d < 0 || d > 9) return UNPACKED;
+            year = year * 10 + d;
+        }
+        if (year < MIN_YEAR || year > MAX_YEAR) return UNPACKED;
+        for (; i < n; i++) {
+            int d = id.charAt(i) - '0';
+            if (d < 0 || d > 9) return UNPACKED;
+            serial = serial * 10 + d;
+        }
+        return letters << 42 | (year - MIN_YEAR) << 34 | serial << 4 | digitCount;
+    }
+
+    @Override
+    public String unpack(long key) {
+        if (key < 0) throw new IllegalArgumentException("Not a packed ID: " + key);
+        StringBuilder sb = new StringBuilder(MAX_LETTERS + 4 + MAX_SERIAL_DIGITS);
+        for (int k = MAX_LETTERS - 1; k >= 0; k--) {
+            int v = (int) (key >>> (42 + 5 * k)) & 31;
+            if (v != 0) sb.append((char) ('A' + v - 1));
+        }
+        sb.append(MIN_YEAR + ((key >>> 34) & 0xFF));
+        String serial = Long.toString((key >>> 4) & ((1L << 30) - 1));
+        for (int k = serial.length(); k < (int) (key & 15); k++) sb.append('0');
+        return sb.append(serial).toString();
+    }
+}
@@ -0,0 +1,476 @@
+package smartstudentplatform.core;
+
+import java.io.*;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Append-only, per-term grade and CGPA history.
+ *
+ * Every term is its own partition. While a term is being recorded its entries
+ * are three parallel int arrays (student ref, course ref, value in hundredths)
+ * plus a per-student chain, so a student's entries in a term are found without
+ * scanning the rest of it. Saved terms are delta encoded: each student's
+ * entries form one run of varints, the course ref and the change in value
+ * from the student's previous entry, usually 2-3 bytes an entry instead of 16,
+ * and are kept in that form in memory as well as on disk. Each partition also
+ * keeps a BitSet of the students it mentions; queries skip ("prune")
+ * partitions that do not contain the student or lie after the requested term.
+ *
+ * Grade entries are recorded for every attempt (so retakes are kept), CGPA
+ * entries only when the value actually changes.
+ *
+ * Student IDs are compared ignoring case, as in StudentManager.
+ * Term labels must sort chronologically as plain strings, e.g. "2023-1", "2023-2".
+ * A history saved with {@link #save(File)} and reopened with {@link #open(File)}
+ * only reads a term's file from disk the first time a query needs it.
+ */
+public class GradeHistory {
+    private static final int CGPA = -1;                 // course ref used for CGPA entries
+    private static final String INDEX_FILE = "history.idx";
+
+    private final List<String> studentIds = new ArrayList<>();
+    private final Map<String, Integer> studentRefs = new HashMap<>();
+    private final List<String> courseCodes = new ArrayList<>();
+    private final Map<String, Integer> courseRefs = new HashMap<>();
+    private final List<Partition> partitions = new ArrayList<>(); // sorted by term
+
+    /* -------- Recording -------- */
+    public void recordGrade(String term, String studentId, String courseCode, double score) {
+        int student = ref(studentIds, studentRefs, IdCodec.normalize(studentId));
+        int course = ref(courseCodes, courseRefs, courseCode);
+        partition(term, true).writable().append(student, course, toFixed(score));
+    }
+
+    public void recordCgpa(String term, String studentId, double cgpa) {
+        int student = ref(studentIds, studentRefs, IdCodec.normalize(studentId));
+        int value = toFixed(cgpa);
+        Partition p = partition(term, true);
+        int at = partitions.indexOf(p);
+        OptionalInt previous = latestCgpa(student, at);
+        if (previous.isPresent() && previous.getAsInt() == value) return; // unchanged
+        p.writable().append(student, CGPA, value);
+    }
+
+    /* -------- Time-travel queries -------- */
+    public List<String> terms() {
+        List<String> terms = new ArrayList<>(partitions.size());
+        for (Partition p : partitions) terms.add(p.term);
+        return terms;
+    }
+
+    /** Latest score per course as it stood at the end of {@code term}. */
+    public Map<String, Double> gradesAsOf(String studentId, String term) {
+        Map<String, Double> grades = new HashMap<>();
+        Integer student = studentRef(studentId);
+        if (student == null) return grades;
+
+        for (int t = lastTermAtOrBefore(term); t >= 0; t--) {
+            Partition p = partitions.get(t);
+            if (!p.students.get(student)) continue; // pruned
+            int[] e = p.data().entries(student);
+            for (int i = 0; i < e.length; i += 2) {
+                if (e[i] != CGPA) grades.putIfAbsent(courseCodes.get(e[i]), fromFixed(e[i + 1]));
+            }
+        }
+        return grades;
+    }
+
+    /** CGPA as it stood at the end of {@code term}, if one had been recorded by then. */
+    public OptionalDouble cgpaAsOf(String studentId, String term) {
+        Integer student = studentRef(studentId);
+        if (student == null) return OptionalDouble.empty();
+        OptionalInt v = latestCgpa(student, lastTermAtOrBefore(term));
+        return v.isPresent() ? OptionalDouble.of(fromFixed(v.getAsInt())) : OptionalDouble.empty();
+    }
+
+    /** CGPA at the end of each term in which it changed, in term order. */
+    public LinkedHashMap<String, Double> cgpaTrajectory(String studentId) {
+        LinkedHashMap<String, Double> trajectory = new LinkedHashMap<>();
+        Integer student = studentRef(studentId);
+        if (student == null) return trajectory;
+
+        for (Partition p : partitions) {
+            if (!p.students.get(student)) continue;
+            int[] e = p.data().entries(student);
+            for (int i = 0; i < e.length; i += 2) {
+                if (e[i] == CGPA) { trajectory.put(p.term, fromFixed(e[i + 1])); break; }
+            }
+        }
+        return trajectory;
+    }
+
+    /** Last attempt minus first attempt for a course, or empty if it was only taken once. */
+    public OptionalDouble retakeImprovement(String studentId, String courseCode) {
+        Integer student = studentRef(studentId);
+        Integer course = courseRefs.get(courseCode);
+        if (student == null || course == null) return OptionalDouble.empty();
+
+        int first = 0, last = 0, attempts = 0;
+        for (Partition p : partitions) {
+            if (!p.students.get(student)) continue;
+            int[] e = p.data().entries(student);
+            // entries run newest first, so the last match seen is the oldest in this term
+            int oldest = -1, newest = -1, n = 0;
+            for (int i = 0; i < e.length; i += 2) {
+                if (e[i] != course) continue;
+                if (newest < 0) newest = e[i + 1];
+                oldest = e[i + 1];
+                n++;
+            }
+            if (n == 0) continue;
+            if (attempts == 0) first = oldest;
+            last = newest;
+            attempts += n;
+        }
+        return attempts < 2 ? OptionalDouble.empty() : OptionalDouble.of(fromFixed(last - first));
+    }
+
+    /* -------- Persistence -------- */
+    /**
+     * Writes the dictionaries and term summaries to {@code dir}, one file per
+     * term named after its label (see termFile), so inserting an earlier term
+     * never makes a term's file name point at another term's data. A term is
+     * read into memory before its own file is rewritten.
+     */
+    public void save(File dir) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("Cannot create " + dir);
+        for (Partition p : partitions) {
+            File f = termFile(dir, p.term);
+            PackedTerm packed = p.loaded != null ? p.loaded.pack() : p.packed();
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(f))) {
+                out.write(packed.bytes);
+            }
+            p.source = f;
+            p.saved(packed);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(new File(dir, INDEX_FILE))))) {
+            writeStrings(out, studentIds);
+            writeStrings(out, courseCodes);
+            out.writeInt(partitions.size());
+            for (Partition p : partitions) {
+                out.writeUTF(p.term);
+                byte[] bits = p.students.toByteArray();
+                out.writeInt(bits.length);
+                out.write(bits);
+            }
+        }
+    }
+
+    /** Opens a saved history; term files are read lazily as queries reach them. */
+    public static GradeHistory open(File dir) throws IOException {
+        GradeHistory h = new GradeHistory();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(new File(dir, INDEX_FILE))))) {
+            for (String id : readStrings(in)) ref(h.studentIds, h.studentRefs, id);
+            for (String code : readStrings(in)) ref(h.courseCodes, h.courseRefs, code);
+            int terms = in.readInt();
+            for (int t = 0; t < terms; t++) {
+                Partition p = new Partition(in.readUTF());
+                byte[] bits = new byte[in.readInt()];
+                in.readFully(bits);
+                p.students = BitSet.valueOf(bits);
+                p.source = termFile(dir, p.term);
+                if (!p.source.exists()) p.source = new File(dir, "term-" + t + ".bin"); // saved by position before
+                h.partitions.add(p);
+            }
+        }
+        return h;
+    }
+
+    /**
+     * The file of a term: "term-LABEL.bin", where lowercase letters, digits,
+     * '.' and '-' are kept and any other character is written as '_' and four
+     * hex digits, so labels differing only in case get different files on
+     * case-insensitive file systems too.
+     */
+    static File termFile(File dir, String term) {
+        StringBuilder name = new StringBuilder("term-");
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '-') name.append(c);
+            else name.append('_').append(String.format("%04x", (int) c));
+        }
+        return new File(dir, name.append(".bin").toString());
+    }
+
+    /* -------- Internals -------- */
+    private Partition partition(String term, boolean create) {
+        int lo = 0, hi = partitions.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = partitions.get(mid).term.compareTo(term);
+            if (cmp == 0) return partitions.get(mid);
+            if (cmp < 0) lo = mid + 1; else hi = mid - 1;
+        }
+        if (!create) return null;
+        Partition p = new Partition(term);
+        p.loaded = new TermData(p);
+        partitions.add(lo, p);
+        return p;
+    }
+
+    /** Index of the last partition whose term is not after {@code term}, or -1. */
+    private int lastTermAtOrBefore(String term) {
+        int lo = 0, hi = partitions.size() - 1, found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (partitions.get(mid).term.compareTo(term) <= 0) { found = mid; lo = mid + 1; }
+            else hi = mid - 1;
+        }
+        return found;
+    }
+
+    private OptionalInt latestCgpa(int student, int fromTerm) {
+        for (int t = fromTerm; t >= 0; t--) {
+            Partition p = partitions.get(t);
+            if (!p.students.get(student)) continue;
+            int[] e = p.data().entries(student);
+            for (int i = 0; i < e.length; i += 2) {
+                if (e[i] == CGPA) return OptionalInt.of(e[i + 1]);
+            }
+        }
+        return OptionalInt.empty();
+    }
+
+    private Integer studentRef(String studentId) {
+        return studentRefs.get(IdCodec.normalize(studentId));
+    }
+
+    private static int ref(List<String> names, Map<String, Integer> refs, String name) {
+        Integer r = refs.get(name);
+        if (r == null) {
+            r = names.size();
+            names.add(name);
+            refs.put(name, r);
+        }
+        return r;
+    }
+
+    private static int toFixed(double v) { return (int) Math.round(v * 100); }
+    private static double fromFixed(int v) { return v / 100.0; }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String v : values) out.writeUTF(v);
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<String> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) values.add(in.readUTF());
+        return values;
+    }
+
+    /** A term's entries for queries: each student's entries newest first. */
+    private interface Term {
+        /** {course, value} pairs, newest first; empty if the student has none in this term. */
+        int[] entries(int student);
+    }
+
+    /**
+     * One term. Entries being recorded live in a TermData; saved terms are held
+     * as a PackedTerm, softly cached and re-read from the term file on demand.
+     */
+    private static final class Partition {
+        final String term;
+        BitSet students = new BitSet();
+        TermData loaded;                       // strongly held while it has unsaved entries
+        SoftReference<PackedTerm> cached;      // re-readable copy of a saved term
+        File source;
+
+        Partition(String term) { this.term = term; }
+
+        Term data() {
+            return loaded != null ? loaded : packed();
+        }
+
+        /** For appending: a saved term is unpacked again until the next save. */
+        TermData writable() {
+            if (loaded == null) loaded = packed().unpack(this);
+            return loaded;
+        }
+
+        PackedTerm packed() {
+            PackedTerm d = cached == null ? null : cached.get();
+            if (d == null) {
+                try {
+                    d = PackedTerm.read(Files.readAllBytes(source.toPath()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read history term " + term, e);
+                }
+                cached = new SoftReference<>(d);
+            }
+            return d;
+        }
+
+        void saved(PackedTerm packed) {
+            cached = new SoftReference<>(packed);
+            loaded = null;
+        }
+    }
+
+    /** A term being recorded: parallel primitive arrays plus a newest-first chain per student. */
+    private static final class TermData implements Term {
+        int size;
+        int[] student = new int[16];
+        int[] course = new int[16];
+        int[] value = new int[16];
+        int[] prev = new int[16];                       // previous entry of the same student
+        int[] heads = new int[0];                       // newest entry per student ref, -1 if none
+        final Partition owner;
+
+        TermData(Partition owner) { this.owner = owner; }
+
+        int head(int s) {
+            return s < heads.length ? heads[s] : -1;
+        }
+
+        void append(int s, int c, int v) {
+            if (size == student.length) {
+                int n = size * 2;
+                student = Arrays.copyOf(student, n);
+                course = Arrays.copyOf(course, n);
+                value = Arrays.copyOf(value, n);
+                prev = Arrays.copyOf(prev, n);
+            }
+            if (s >= heads.length) {
+                int old = heads.length;
+                heads = Arrays.copyOf(heads, Math.max(s + 1, old * 2));
+                Arrays.fill(heads, old, heads.length, -1);
+            }
+            student[size] = s;
+            course[size] = c;
+            value[size] = v;
+            prev[size] = heads[s];
+            heads[s] = size;
+            size++;
+            owner.students.set(s);
+        }
+
+        @Override
+        public int[] entries(int s) {
+            int n = 0;
+            for (int e = head(s); e >= 0; e = prev[e]) n++;
+            int[] out = new int[2 * n];
+            int i = 0;
+            for (int e = head(s); e >= 0; e = prev[e]) {
+                out[i++] = course[e];
+                out[i++] = value[e];
+            }
+            return out;
+        }
+
+        /** Delta encodes the term, students in ref order, each student's entries oldest first. */
+        PackedTerm pack() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(size * 3 + 16);
+            int students = 0;
+            for (int s = 0; s < heads.length; s++) if (heads[s] >= 0) students++;
+            PackedTerm.writeVarint(out, students);
+            int[] run = new int[16];
+            int previousStudent = 0;
+            for (int s = 0; s < heads.length; s++) {
+                if (heads[s] < 0) continue;
+                int n = 0;
+                for (int e = heads[s]; e >= 0; e = prev[e]) {
+                    if (n == run.length) run = Arrays.copyOf(run, n * 2);
+                    run[n++] = e;
+                }
+                PackedTerm.writeVarint(out, s - previousStudent);
+                PackedTerm.writeVarint(out, n);
+                int previousValue = 0;
+                for (int k = n - 1; k >= 0; k--) {
+                    int e = run[k];
+                    PackedTerm.writeVarint(out, course[e] + 1);   // CGPA (-1) becomes 0
+                    PackedTerm.writeVarint(out, zigzag(value[e] - previousValue));
+                    previousValue = value[e];
+                }
+                previousStudent = s;
+            }
+            return PackedTerm.read(out.toByteArray());
+        }
+    }
+
+    /**
+     * A saved term, exactly as in its file: a varint student count, then per
+     * student the varint gap from the previous student ref, the entry count and
+     * the entries oldest first as varint (course ref + 1) and zigzag varint
+     * change in value from the student's previous entry.
+     */
+    private static final class PackedTerm implements Term {
+        final byte[] bytes;
+        final int[] studentRefs;                        // ascending
+        final int[] offsets;                            // where each student's entry count starts
+
+        private PackedTerm(byte[] bytes, int students) {
+            this.bytes = bytes;
+            this.studentRefs = new int[students];
+            this.offsets = new int[students];
+        }
+
+        static PackedTerm read(byte[] bytes) {
+            int[] at = {0};
+            PackedTerm d = new PackedTerm(bytes, readVarint(bytes, 0, at));
+            int ref = 0;
+            for (int i = 0; i < d.studentRefs.length; i++) {
+                ref += readVarint(bytes, at[0], at);
+                d.studentRefs[i] = ref;
+                d.offsets[i] = at[0];
+                int n = readVarint(bytes, at[0], at);
+                for (int k = 0; k < 2 * n; k++) readVarint(bytes, at[0], at);
+            }
+            return d;
+        }
+
+        @Override
+        public int[] entries(int s) {
+            int i = Arrays.binarySearch(studentRefs, s);
+            if (i < 0) return new int[0];
+            int[] at = {0};
+            int n = readVarint(bytes, offsets[i], at);
+            int[] out = new int[2 * n];
+            int value = 0;
+            for (int k = n - 1; k >= 0; k--) {              // stored oldest first, returned newest first
+                out[2 * k] = readVarint(bytes, at[0], at) - 1;
+                value += unzigzag(readVarint(bytes, at[0], at));
+                out[2 * k + 1] = value;
+            }
+            return out;
+        }
+
+        TermData unpack(Partition owner) {
+            TermData d = new TermData(owner);
+            for (int s : studentRefs) {
+                int[] entries = entries(s);
+                for (int k = entries.length - 2; k >= 0; k -= 2) d.append(s, entries[k], entries[k + 1]);
+            }
+            return d;
+        }
+
+        static void writeVarint(ByteArrayOutputStream out, int v) {
+            while ((v & ~0x7F) != 0) {
+                out.write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.write(v);
+        }
+
+        /** The varint at {@code from}; {@code next[0]} is set to the byte after it. */
+        static int readVarint(byte[] b, int from, int[] next) {
+            int v = 0, shift = 0, i = from;
+            while (true) {
+                byte x = b[i++];
+                v |= (x & 0x7F) << shift;
+                if (x >= 0) break;
+                shift += 7;
+            }
+            next[0] = i;
+            return v;
+        }
+    }
+
+    private static int zigzag(int v) { return (v << 1) ^ (v >> 31); }
+    private static int unzigzag(int v) { return (v >>> 1) ^ -(v & 1); }
+}
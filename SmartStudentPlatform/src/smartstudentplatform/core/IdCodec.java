@@ -0,0 +1,44 @@
+package smartstudentplatform.core;
+
+/**
+ * Turns student IDs into compact {@code long} keys for the ID index.
+ *
+ * IDs are compared ignoring case throughout (see Algorithms), so a codec must
+ * give two IDs the same key exactly when they are equal ignoring case. IDs the
+ * codec cannot pack are kept by the index in an interned string table instead.
+ */
+public interface IdCodec {
+    /** Returned by pack() for IDs that do not follow the codec's pattern. */
+    long UNPACKED = -1;
+
+    /** The ID's key, which must be {@code >= 0}, or UNPACKED. */
+    long pack(String id);
+
+    /** An ID with this key, in the codec's canonical spelling. */
+    String unpack(long key);
+
+    /** Faculty letters, year and serial, e.g. COS2021000042; see FacultyYearSerialCodec. */
+    IdCodec STANDARD = new FacultyYearSerialCodec();
+
+    /**
+     * The ID spelled so that IDs equal ignoring case are equal strings
+     * (upper case for ASCII). Returns {@code id} itself when it already is.
+     */
+    static String normalize(String id) {
+        int n = id.length(), i = 0;
+        while (i < n) {
+            char c = id.charAt(i);
+            if (c >= 0x80 || (c >= 'a' && c <= 'z')) break;
+            i++;
+        }
+        if (i == n) return id;
+        StringBuilder sb = new StringBuilder(n).append(id, 0, i);
+        for (; i < n; i++) sb.append(fold(id.charAt(i)));
+        return sb.toString();
+    }
+
+    /** One representative per equalsIgnoreCase class of characters. */
+    private static char fold(char c) {
+        return Character.toUpperCase(Character.toLowerCase(Character.toUpperCase(c)));
+    }
+}
@@ -0,0 +1,136 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * Student lookup by ID, ignoring case like the searches in Algorithms.
+ *
+ * IDs are turned into long keys by an IdCodec and kept in an open-addressing
+ * table: a long[] of keys and a Student[] of values, probed linearly. IDs the
+ * codec cannot pack get a key from an interned table of their normalized
+ * spelling. With standard IDs a lookup parses the ID and probes a primitive
+ * array, without hashing a String or following HashMap nodes, and an entry
+ * costs about 24 bytes instead of a HashMap node and its table slot.
+ */
+final class IdIndex {
+    private static final float LOAD = 0.6f;
+    private static final long INTERNED = Long.MIN_VALUE; // tag bit of keys from the interned table
+
+    private final IdCodec codec;
+    private final Map<String, Long> interned = new HashMap<>(); // normalized unpacked ID -> key
+    private long[] keys;
+    private Student[] values;                                   // null marks a free slot
+    private int size, mask, resizeAt;
+
+    IdIndex(IdCodec codec) {
+        this(codec, 16);
+    }
+
+    private IdIndex(IdCodec codec, int expected) {
+        this.codec = codec;
+        allocate(Math.max(16, Integer.highestOneBit((int) (expected / LOAD)) << 1));
+    }
+
+    static IdIndex build(IdCodec codec, Collection<Student> students) {
+        IdIndex index = new IdIndex(codec, students.size());
+        for (Student s : students) index.put(s);
+        return index;
+    }
+
+    int size() { return size; }
+
+    Student get(String id) {
+        long key = key(id, false);
+        if (key == IdCodec.UNPACKED) return null;
+        int i = find(key);
+        return i < 0 ? null : values[i];
+    }
+
+    boolean containsKey(String id) { return get(id) != null; }
+
+    /** Indexes {@code s} under its ID, returning the student it displaced, if any. */
+    Student put(Student s) {
+        long key = key(s.getId(), true);
+        int i = slot(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                Student old = values[i];
+                values[i] = s;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = s;
+        if (++size > resizeAt) allocate(keys.length * 2);
+        return null;
+    }
+
+    Student remove(String id) {
+        long key = key(id, false);
+        if (key == IdCodec.UNPACKED) return null;
+        int i = find(key);
+        if (i < 0) return null;
+        Student old = values[i];
+        // backward-shift deletion: pull later entries of the probe run into the gap
+        for (int gap = i, j = (i + 1) & mask; ; j = (j + 1) & mask) {
+            if (values[j] == null) {
+                values[gap] = null;
+                break;
+            }
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        size--;
+        return old;
+    }
+
+    /* -------- Keys and probing -------- */
+    /** The ID's key, or UNPACKED for an unpackable ID not yet interned (when not interning). */
+    private long key(String id, boolean intern) {
+        long key = codec.pack(id);
+        if (key != IdCodec.UNPACKED) return key;
+        String normalized = IdCodec.normalize(id);
+        Long k = interned.get(normalized);
+        if (k == null) {
+            if (!intern) return IdCodec.UNPACKED;
+            k = INTERNED | interned.size();
+            interned.put(normalized, k);
+        }
+        return k;
+    }
+
+    private int find(long key) {
+        for (int i = slot(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads the structured keys
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        Student[] oldValues = values;
+        keys = new long[capacity];
+        values = new Student[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD);
+        if (oldValues == null) return;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) continue;
+            int j = slot(oldKeys[i]);
+            while (values[j] != null) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * Approximate nearest-neighbour index over students' grade profiles.
+ *
+ * A student is embedded as a sparse vector with two dimensions per course
+ * taken: 1 for having taken it and (score - 50) / 50 for how well, so two
+ * students are similar when they share courses and did comparably in them.
+ * Similarity is the cosine of these vectors.
+ *
+ * The index is random-hyperplane LSH: each of TABLES tables hashes a vector
+ * to {@code bits} sign bits of its projections onto random hyperplanes, and
+ * similar vectors tend to land in the same bucket. A query collects the
+ * students in its own bucket and the buckets one bit away in every table, then
+ * ranks only those candidates by exact cosine. Rosters small enough to scan
+ * are answered exactly.
+ *
+ * Hyperplane weights are drawn per course code from a fixed seed, so the
+ * course dictionary grows as new courses appear without re-hashing anyone.
+ * The number of bits follows the number of students indexed: once buckets
+ * average twice the target size (or a quarter of it), every signature is
+ * recomputed from the kept vectors with the new bit count. That is O(n), but
+ * happens only each time the roster doubles or halves.
+ */
+final class PeerIndex {
+    private static final int TABLES = 16;
+    private static final int PER_BUCKET = 128;           // target bucket size; fewer bits = more candidates
+    private static final int MAX_BITS = 16;
+    private static final long SEED = 0x5EED_C0DE_2024L;
+    private static final int EXACT_LIMIT = 4_096;        // below this many students a full scan is cheaper
+
+    private int bits;
+    private final Map<String, Integer> courseRefs = new HashMap<>(); // the course dictionary
+    private final List<float[]> planes = new ArrayList<>();          // by course ref: 2 weights per (table, bit)
+    private final Map<String, Integer> refs = new HashMap<>();       // student ID -> ref
+    private Student[] students = new Student[16];                    // by ref; null once removed
+    private Vector[] vectors = new Vector[16];                       // by ref
+    private int[] signatures = new int[16 * TABLES];                 // by ref * TABLES + table
+    private int refCount, indexed;
+    private final IntList free = new IntList();                      // refs of removed students, for reuse
+    private IntList[][] buckets;                                     // [table][signature]
+    private float[] projections;
+
+    private int[] seen = new int[16];                                // query stamp per ref, for de-duplication
+    private int stamp;
+
+    /** A student's embedding: course refs ascending, with the performance value of each. */
+    private static final class Vector {
+        final int[] courses;
+        final float[] performance;
+        final double norm;
+
+        Vector(int[] courses, float[] performance) {
+            this.courses = courses;
+            this.performance = performance;
+            double sq = 0;
+            for (float p : performance) sq += 1 + p * p;
+            this.norm = Math.sqrt(sq);
+        }
+
+        /** Cosine similarity; each shared course adds 1 + pa * pb to the dot product. */
+        double cosine(Vector o) {
+            double dot = 0;
+            for (int i = 0, j = 0; i < courses.length && j < o.courses.length; ) {
+                if (courses[i] < o.courses[j]) i++;
+                else if (courses[i] > o.courses[j]) j++;
+                else dot += 1 + performance[i++] * o.performance[j++];
+            }
+            return dot == 0 ? 0 : dot / (norm * o.norm);
+        }
+    }
+
+    private PeerIndex(int expectedStudents) {
+        setBits(bitsFor(expectedStudents));
+    }
+
+    /** About PER_BUCKET students per bucket, so a query probes a few thousand candidates. */
+    private static int bitsFor(int students) {
+        int b = 32 - Integer.numberOfLeadingZeros(Math.max(1, students / PER_BUCKET));
+        return Math.max(8, Math.min(MAX_BITS, b));
+    }
+
+    private void setBits(int bits) {
+        this.bits = bits;
+        this.buckets = new IntList[TABLES][1 << bits];
+        this.projections = new float[TABLES * bits];
+    }
+
+    static PeerIndex build(Collection<Student> students) {
+        PeerIndex index = new PeerIndex(students.size());
+        for (Student s : students) index.add(s);
+        return index;
+    }
+
+    /* -------- Maintenance -------- */
+    /** Indexes a student, or re-hashes it if its ID is already indexed (e.g. after its grades changed). */
+    void add(Student s) {
+        Integer existing = refs.get(s.getId());
+        if (s.getGrades().isEmpty()) {                     // no profile to compare
+            if (existing != null) remove(existing);
+            return;
+        }
+        int ref;
+        if (existing != null) {
+            ref = existing;
+            unbucket(ref);
+        } else {
+            ref = free.size > 0 ? free.values[--free.size] : newRef();
+            refs.put(s.getId(), ref);
+            indexed++;
+        }
+        students[ref] = s;
+        vectors[ref] = embed(s);
+        signature(vectors[ref], signatures, ref * TABLES);
+        for (int t = 0; t < TABLES; t++) bucket(t, signatures[ref * TABLES + t]).add(ref);
+        if (bitsFor(indexed) > bits) rehash();
+    }
+
+    void remove(Student s) {
+        Integer ref = refs.get(s.getId());
+        if (ref != null) remove(ref);
+    }
+
+    private void remove(int ref) {
+        unbucket(ref);
+        refs.remove(students[ref].getId());
+        students[ref] = null;
+        vectors[ref] = null;
+        free.add(ref);
+        indexed--;
+        if (bitsFor(indexed) < bits - 1) rehash();   // one level of slack, so add/remove at a boundary cannot thrash
+    }
+
+    /** Re-buckets every student with the bit count for the current size. */
+    private void rehash() {
+        setBits(bitsFor(indexed));
+        for (int ref = 0; ref < refCount; ref++) {
+            if (students[ref] == null) continue;
+            signature(vectors[ref], signatures, ref * TABLES);
+            for (int t = 0; t < TABLES; t++) bucket(t, signatures[ref * TABLES + t]).add(ref);
+        }
+    }
+
+    int bits() { return bits; }
+
+    private void unbucket(int ref) {
+        for (int t = 0; t < TABLES; t++) bucket(t, signatures[ref * TABLES + t]).remove(ref);
+    }
+
+    private int newRef() {
+        int ref = refCount++;
+        if (ref == students.length) {
+            students = Arrays.copyOf(students, ref * 2);
+            vectors = Arrays.copyOf(vectors, ref * 2);
+            signatures = Arrays.copyOf(signatures, ref * 2 * TABLES);
+            seen = Arrays.copyOf(seen, ref * 2);
+        }
+        return ref;
+    }
+
+    /* -------- Queries -------- */
+    /** Up to {@code k} other students most similar to {@code s}, most similar first. */
+    List<Student> nearest(Student s, int k) {
+        if (k < 1 || s.getGrades().isEmpty()) return new ArrayList<>();
+        Integer self = refs.get(s.getId());
+        Vector query = self != null ? vectors[self] : embed(s);
+        if (++stamp == 0) { Arrays.fill(seen, 0); stamp = 1; }
+        if (self != null) seen[self] = stamp;              // never suggest the student themself
+
+        // min-heap on similarity holding the best k so far
+        PriorityQueue<Match> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble(m -> m.similarity));
+        if (indexed <= EXACT_LIMIT) {
+            for (int ref = 0; ref < refCount; ref++) consider(ref, query, k, best);
+        } else {
+            int[] sig = new int[TABLES];
+            signature(query, sig, 0);
+            for (int t = 0; t < TABLES; t++) {
+                probe(t, sig[t], query, k, best);
+                for (int b = 0; b < bits; b++) probe(t, sig[t] ^ (1 << b), query, k, best);
+            }
+        }
+
+        List<Student> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) result.add(best.poll().student);
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void probe(int table, int signature, Vector query, int k, PriorityQueue<Match> best) {
+        IntList bucket = buckets[table][signature];
+        if (bucket == null) return;
+        for (int i = 0; i < bucket.size; i++) consider(bucket.values[i], query, k, best);
+    }
+
+    private void consider(int ref, Vector query, int k, PriorityQueue<Match> best) {
+        if (students[ref] == null || seen[ref] == stamp) return;
+        seen[ref] = stamp;
+        double sim = query.cosine(vectors[ref]);
+        if (best.size() < k) best.add(new Match(students[ref], sim));
+        else if (sim > best.peek().similarity) {
+            best.poll();
+            best.add(new Match(students[ref], sim));
+        }
+    }
+
+    private static final class Match {
+        final Student student;
+        final double similarity;
+
+        Match(Student student, double similarity) {
+            this.student = student;
+            this.similarity = similarity;
+        }
+    }
+
+    /* -------- Embedding -------- */
+    private Vector embed(Student s) {
+        Map<String, Double> grades = s.getGrades();
+        long[] packed = new long[grades.size()];             // course ref in the high half, index in the low
+        double[] scores = new double[grades.size()];
+        int n = 0;
+        for (Map.Entry<String, Double> g : grades.entrySet()) {
+            scores[n] = g.getValue();
+            packed[n] = (long) courseRef(g.getKey()) << 32 | n;
+            n++;
+        }
+        Arrays.sort(packed);
+        int[] courses = new int[n];
+        float[] performance = new float[n];
+        for (int i = 0; i < n; i++) {
+            courses[i] = (int) (packed[i] >>> 32);
+            performance[i] = (float) ((scores[(int) packed[i]] - 50) / 50);
+        }
+        return new Vector(courses, performance);
+    }
+
+    private int courseRef(String courseCode) {
+        Integer ref = courseRefs.get(courseCode);
+        if (ref == null) {
+            ref = planes.size();
+            courseRefs.put(courseCode, ref);
+            planes.add(hyperplanes(courseCode));
+        }
+        return ref;
+    }
+
+    /** Writes the vector's TABLES signatures to {@code out} from {@code at}. */
+    private void signature(Vector v, int[] out, int at) {
+        Arrays.fill(projections, 0);
+        for (int i = 0; i < v.courses.length; i++) {
+            float[] w = planes.get(v.courses[i]);
+            float p = v.performance[i];
+            for (int t = 0; t < TABLES; t++) {
+                for (int b = 0, j = t * bits, k = 2 * t * MAX_BITS; b < bits; b++, j++, k += 2) {
+                    projections[j] += w[k] + w[k + 1] * p;
+                }
+            }
+        }
+        for (int t = 0; t < TABLES; t++) {
+            int sig = 0;
+            for (int b = 0; b < bits; b++) if (projections[t * bits + b] > 0) sig |= 1 << b;
+            out[at + t] = sig;
+        }
+    }
+
+    /**
+     * The course's Gaussian hyperplane weights (enrolment, performance) for every
+     * (table, bit) up to MAX_BITS, so they stay the same when the bit count changes.
+     */
+    private float[] hyperplanes(String courseCode) {
+        SplittableRandom r = new SplittableRandom(SEED * 31 + courseCode.hashCode());
+        float[] w = new float[TABLES * MAX_BITS * 2];
+        for (int j = 0; j < w.length; j++) w[j] = (float) r.nextGaussian();
+        return w;
+    }
+
+    private IntList bucket(int table, int signature) {
+        IntList b = buckets[table][signature];
+        if (b == null) b = buckets[table][signature] = new IntList();
+        return b;
+    }
+
+    /** Growable int array; removal swaps in the last element (bucket order does not matter). */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+        }
+
+        void remove(int v) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == v) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
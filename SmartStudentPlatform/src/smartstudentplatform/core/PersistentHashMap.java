@@ -0,0 +1,208 @@
+package smartstudentplatform.core;
+
+import java.util.Arrays;
+
+/**
+ * Immutable hash map with structural sharing: a hash array mapped trie (HAMT).
+ *
+ * Each node covers 5 bits of the key's hash and stores only the slots in use,
+ * located through a 32-bit bitmap, so a node holds 2..32 entries without
+ * wasted space. get, put and remove touch at most 7 levels and copy only the
+ * nodes on that path; the rest is shared with the previous map. Keys whose
+ * whole hash collides share a small linear node.
+ */
+final class PersistentHashMap<K, V> {
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(0, null);
+
+    private final int size;
+    private final Node root; // null when empty
+
+    private PersistentHashMap(int size, Node root) {
+        this.size = size;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() { return (PersistentHashMap<K, V>) EMPTY; }
+
+    int size() { return size; }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+        return root == null ? null : (V) root.get(0, hash(key), key);
+    }
+
+    PersistentHashMap<K, V> put(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node start = root != null ? root : BitmapNode.EMPTY;
+        Node newRoot = start.put(0, hash(key), key, value, added);
+        if (newRoot == root) return this;
+        return new PersistentHashMap<>(added[0] ? size + 1 : size, newRoot);
+    }
+
+    PersistentHashMap<K, V> remove(K key) {
+        if (root == null) return this;
+        Node newRoot = root.remove(0, hash(key), key);
+        if (newRoot == root) return this;
+        return newRoot == null ? empty() : new PersistentHashMap<>(size - 1, newRoot);
+    }
+
+    /* -------- Nodes -------- */
+    private interface Node {
+        Object get(int shift, int hash, Object key);
+
+        /** Returns this node if nothing changed; sets added[0] if the key is new. */
+        Node put(int shift, int hash, Object key, Object value, boolean[] added);
+
+        /** Returns this node if the key is absent, null if the node became empty. */
+        Node remove(int shift, int hash, Object key);
+    }
+
+    /**
+     * Two array slots per present bit: {key, value}, or {null, child node} for
+     * keys that continue one level down.
+     */
+    private static final class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) { return Integer.bitCount(bitmap & (bit - 1)); }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((bitmap & bit) == 0) return null;
+            int i = 2 * index(bit);
+            Object k = array[i], v = array[i + 1];
+            if (k == null) return ((Node) v).get(shift + 5, hash, key);
+            return key.equals(k) ? v : null;
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            int i = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] a = new Object[array.length + 2];
+                System.arraycopy(array, 0, a, 0, i);
+                a[i] = key;
+                a[i + 1] = value;
+                System.arraycopy(array, i, a, i + 2, array.length - i);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, a);
+            }
+            Object k = array[i], v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).put(shift + 5, hash, key, value, added);
+                return child == v ? this : new BitmapNode(bitmap, with(i + 1, child));
+            }
+            if (key.equals(k)) {
+                return v == value ? this : new BitmapNode(bitmap, with(i + 1, value));
+            }
+            // two keys in one slot: push both a level down
+            added[0] = true;
+            Node pair = split(shift + 5, hash(k), k, v, hash, key, value);
+            Object[] a = with(i + 1, pair);
+            a[i] = null;
+            return new BitmapNode(bitmap, a);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int bit = 1 << ((hash >>> shift) & 31);
+            if ((bitmap & bit) == 0) return this;
+            int i = 2 * index(bit);
+            Object k = array[i], v = array[i + 1];
+            if (k == null) {
+                Node child = ((Node) v).remove(shift + 5, hash, key);
+                if (child == v) return this;
+                if (child != null) return new BitmapNode(bitmap, with(i + 1, child));
+            } else if (!key.equals(k)) {
+                return this;
+            }
+            if (bitmap == bit) return null;
+            Object[] a = new Object[array.length - 2];
+            System.arraycopy(array, 0, a, 0, i);
+            System.arraycopy(array, i + 2, a, i, array.length - i - 2);
+            return new BitmapNode(bitmap ^ bit, a);
+        }
+
+        private Object[] with(int i, Object value) {
+            Object[] a = array.clone();
+            a[i] = value;
+            return a;
+        }
+
+        private static Node split(int shift, int h1, Object k1, Object v1, int h2, Object k2, Object v2) {
+            if (h1 == h2) return new CollisionNode(h1, new Object[]{k1, v1, k2, v2});
+            boolean[] ignored = new boolean[1];
+            return EMPTY.put(shift, h1, k1, v1, ignored).put(shift, h2, k2, v2, ignored);
+        }
+    }
+
+    /** Keys with the same full hash, as {key, value} pairs. */
+    private static final class CollisionNode implements Node {
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int find(Object key) {
+            for (int i = 0; i < array.length; i += 2) if (key.equals(array[i])) return i;
+            return -1;
+        }
+
+        @Override
+        public Object get(int shift, int hash, Object key) {
+            int i = find(key);
+            return i < 0 ? null : array[i + 1];
+        }
+
+        @Override
+        public Node put(int shift, int hash, Object key, Object value, boolean[] added) {
+            if (hash != this.hash) {
+                // a different hash reached this level: nest under a bitmap node that tells them apart
+                Node parent = new BitmapNode(1 << ((this.hash >>> shift) & 31), new Object[]{null, this});
+                return parent.put(shift, hash, key, value, added);
+            }
+            int i = find(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) return this;
+                Object[] a = array.clone();
+                a[i + 1] = value;
+                return new CollisionNode(hash, a);
+            }
+            Object[] a = Arrays.copyOf(array, array.length + 2);
+            a[array.length] = key;
+            a[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, a);
+        }
+
+        @Override
+        public Node remove(int shift, int hash, Object key) {
+            int i = find(key);
+            if (i < 0) return this;
+            if (array.length == 2) return null;
+            Object[] a = new Object[array.length - 2];
+            System.arraycopy(array, 0, a, 0, i);
+            System.arraycopy(array, i + 2, a, i, array.length - i - 2);
+            return new CollisionNode(hash, a);
+        }
+    }
+}
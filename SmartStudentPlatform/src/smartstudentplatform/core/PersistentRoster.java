@@ -0,0 +1,103 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * One immutable version of a roster, as kept by a versioned StudentManager
+ * (see {@link StudentManager#StudentManager(boolean)}).
+ *
+ * The ID index is a PersistentHashMap keyed by normalized ID (so lookups
+ * ignore case, see IdCodec.normalize) and the roster order a PersistentVector,
+ * so deriving the next version after adding, changing or removing one student
+ * costs O(log n) and shares everything else with this one. Holding on to a
+ * version is therefore O(1): it is how undo, forks and point-in-time reports
+ * work without copying the roster.
+ *
+ * Removed students leave a hole in the order vector until enough holes build
+ * up to make compacting it worthwhile.
+ *
+ * The Student objects are shared between versions too. A versioned manager
+ * replaces a student with a changed copy instead of changing it in place, so
+ * students obtained from a version must not be modified directly.
+ */
+public final class PersistentRoster {
+    static final PersistentRoster EMPTY =
+            new PersistentRoster(PersistentHashMap.empty(), PersistentVector.empty(), 0);
+
+    /** A student and its position in the order vector. */
+    private static final class Slot {
+        final Student student;
+        final int position;
+
+        Slot(Student student, int position) {
+            this.student = student;
+            this.position = position;
+        }
+    }
+
+    private final PersistentHashMap<String, Slot> byId;
+    private final PersistentVector<Student> order;   // null where a student was removed
+    private final int holes;
+
+    private PersistentRoster(PersistentHashMap<String, Slot> byId, PersistentVector<Student> order, int holes) {
+        this.byId = byId;
+        this.order = order;
+        this.holes = holes;
+    }
+
+    /** A version holding {@code students} in that order; IDs must be distinct. */
+    static PersistentRoster of(Collection<Student> students) {
+        List<Student> list = new ArrayList<>(students);
+        PersistentHashMap<String, Slot> byId = PersistentHashMap.empty();
+        for (int i = 0; i < list.size(); i++) {
+            byId = byId.put(IdCodec.normalize(list.get(i).getId()), new Slot(list.get(i), i));
+        }
+        return new PersistentRoster(byId, PersistentVector.of(list), 0);
+    }
+
+    public int size() { return byId.size(); }
+
+    public Student get(String id) {
+        Slot slot = byId.get(IdCodec.normalize(id));
+        return slot == null ? null : slot.student;
+    }
+
+    /**
+     * The students in roster order, read-only. Without holes this is a view of
+     * the order vector; otherwise the live students are copied out.
+     */
+    public List<Student> students() {
+        if (holes == 0) return order.asList();
+        List<Student> live = new ArrayList<>(size());
+        for (Student s : order) if (s != null) live.add(s);
+        return Collections.unmodifiableList(live);
+    }
+
+    /* -------- Derived versions -------- */
+    /** Appends a student whose ID is not in this version. */
+    PersistentRoster add(Student s) {
+        Slot slot = new Slot(s, order.size());
+        return new PersistentRoster(byId.put(IdCodec.normalize(s.getId()), slot), order.append(s), holes);
+    }
+
+    /** Puts {@code s} where the student with the same ID is. */
+    PersistentRoster replace(Student s) {
+        String key = IdCodec.normalize(s.getId());
+        Slot old = byId.get(key);
+        if (old == null) throw new NoSuchElementException("No student with ID " + s.getId());
+        if (old.student == s) return this;
+        return new PersistentRoster(byId.put(key, new Slot(s, old.position)),
+                order.set(old.position, s), holes);
+    }
+
+    PersistentRoster remove(String id) {
+        String key = IdCodec.normalize(id);
+        Slot old = byId.get(key);
+        if (old == null) return this;
+        PersistentRoster next = new PersistentRoster(byId.remove(key), order.set(old.position, null), holes + 1);
+        // compacting costs O(n), so only once holes are a good fraction of the order
+        return next.holes > 32 && next.holes > next.size() / 4 ? of(next.students()) : next;
+    }
+}
@@ -0,0 +1,169 @@
+package smartstudentplatform.core;
+
+import java.util.*;
+
+/**
+ * Immutable indexed sequence with structural sharing: a 32-way trie of
+ * elements plus a separate tail array, as in Clojure's vectors.
+ *
+ * get and set are O(log32 n), i.e. at most 4 levels for a million elements,
+ * and append is amortized O(1). An update copies only the 32-slot arrays on
+ * the path to the element, so the old and new vectors share everything else.
+ */
+final class PersistentVector<E> implements Iterable<E> {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, new Object[WIDTH], new Object[0]);
+
+    private final int size;
+    private final int shift;       // BITS * (levels above the leaves)
+    private final Object[] root;   // inner nodes and leaves are full WIDTH arrays
+    private final Object[] tail;   // the last 1..WIDTH elements, not yet in the trie
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() { return (PersistentVector<E>) EMPTY; }
+
+    /** Builds a vector bottom-up in O(n), without the per-element copying of repeated append. */
+    static <E> PersistentVector<E> of(List<? extends E> items) {
+        int n = items.size();
+        if (n == 0) return empty();
+        int tailStart = tailOffset(n);
+        Object[] tail = items.subList(tailStart, n).toArray();
+
+        List<Object[]> level = new ArrayList<>(tailStart / WIDTH);
+        for (int i = 0; i < tailStart; i += WIDTH) level.add(items.subList(i, i + WIDTH).toArray());
+        int shift = BITS;
+        while (level.size() > WIDTH) {
+            List<Object[]> parents = new ArrayList<>((level.size() + MASK) / WIDTH);
+            for (int i = 0; i < level.size(); i += WIDTH) {
+                Object[] parent = new Object[WIDTH];
+                for (int j = 0; j < WIDTH && i + j < level.size(); j++) parent[j] = level.get(i + j);
+                parents.add(parent);
+            }
+            level = parents;
+            shift += BITS;
+        }
+        Object[] root = new Object[WIDTH];
+        for (int j = 0; j < level.size(); j++) root[j] = level.get(j);
+        return new PersistentVector<>(n, shift, root, tail);
+    }
+
+    int size() { return size; }
+
+    private static int tailOffset(int size) {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    /** The array holding element {@code i}: a leaf of the trie, or the tail. */
+    private Object[] arrayFor(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + ", size " + size);
+        if (i >= tailOffset(size)) return tail;
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) node = (Object[]) node[(i >>> level) & MASK];
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int i) { return (E) arrayFor(i)[i & MASK]; }
+
+    /* -------- Updates (each returns a new vector) -------- */
+    PersistentVector<E> set(int i, E value) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + ", size " + size);
+        if (i >= tailOffset(size)) {
+            Object[] newTail = tail.clone();
+            newTail[i & MASK] = value;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, set(shift, root, i, value), tail);
+    }
+
+    private static Object[] set(int level, Object[] node, int i, Object value) {
+        Object[] copy = node.clone();
+        if (level == 0) copy[i & MASK] = value;
+        else copy[(i >>> level) & MASK] = set(level - BITS, (Object[]) node[(i >>> level) & MASK], i, value);
+        return copy;
+    }
+
+    PersistentVector<E> append(E value) {
+        if (size - tailOffset(size) < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = value;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        // the tail is full: push it into the trie, growing a level if the root is full too
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{value});
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] leaf) {
+        int sub = ((size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        if (level == BITS) {
+            copy[sub] = leaf;
+        } else {
+            Object[] child = (Object[]) parent[sub];
+            copy[sub] = child != null ? pushTail(level - BITS, child, leaf) : newPath(level - BITS, leaf);
+        }
+        return copy;
+    }
+
+    private static Object[] newPath(int level, Object[] leaf) {
+        if (level == 0) return leaf;
+        Object[] node = new Object[WIDTH];
+        node[0] = newPath(level - BITS, leaf);
+        return node;
+    }
+
+    /* -------- Reading -------- */
+    /** Walks leaf by leaf rather than descending the trie for every element. */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int i;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() { return i < size; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (i >= size) throw new NoSuchElementException();
+                if ((i & MASK) == 0 || leaf == null) leaf = arrayFor(i);
+                return (E) leaf[i++ & MASK];
+            }
+        };
+    }
+
+    /** Read-only List view; random access costs O(log32 n). */
+    List<E> asList() {
+        class View extends AbstractList<E> implements RandomAccess {
+            @Override
+            public E get(int index) { return PersistentVector.this.get(index); }
+
+            @Override
+            public int size() { return size; }
+
+            @Override
+            public Iterator<E> iterator() { return PersistentVector.this.iterator(); }
+        }
+        return new View();
+    }
+}
@@ -0,0 +1,140 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * The students added, removed and changed between two rosters, found by
+ * comparing their RosterDigests: the walk starts at the roots and only
+ * descends into subtrees whose hashes differ, so two nearly identical
+ * rosters cost a few hash comparisons per difference, not one per student.
+ *
+ * A diff is also a patch: applyTo() turns a roster like {@code from} into
+ * one like {@code to}, touching only the students that differ.
+ */
+public final class RosterDiff {
+    private final List<Student> added = new ArrayList<>();
+    private final List<Student> removed = new ArrayList<>();
+    private final List<Change> changed = new ArrayList<>();
+    private int bucketsCompared;
+
+    /** One student whose name, CGPA or grades differ between the rosters; {@code before} is a copy taken at the diff. */
+    public static final class Change {
+        private final Student before, after;
+
+        Change(Student before, Student after) {
+            this.before = before;
+            this.after = after;
+        }
+
+        public Student getBefore() { return before; }
+        public Student getAfter() { return after; }
+
+        public boolean nameChanged() { return !Objects.equals(before.getName(), after.getName()); }
+        public boolean cgpaChanged() { return Double.compare(before.getCgpa(), after.getCgpa()) != 0; }
+
+        /** Grades added, removed, rescored or with a renamed course, by course code. */
+        public List<GradeChange> gradeChanges() {
+            Set<String> codes = new TreeSet<>(before.getGrades().keySet());
+            codes.addAll(after.getGrades().keySet());
+            List<GradeChange> changes = new ArrayList<>();
+            for (String code : codes) {
+                Double was = before.getGrades().get(code), now = after.getGrades().get(code);
+                if (!Objects.equals(was, now)
+                        || (now != null && !before.getCourseName(code).equals(after.getCourseName(code)))) {
+                    changes.add(new GradeChange(code, was, now));
+                }
+            }
+            return changes;
+        }
+    }
+
+    /** A grade's score before and after; null where the student had no grade. */
+    public static final class GradeChange {
+        private final String courseCode;
+        private final Double before, after;
+
+        GradeChange(String courseCode, Double before, Double after) {
+            this.courseCode = courseCode;
+            this.before = before;
+            this.after = after;
+        }
+
+        public String getCourseCode() { return courseCode; }
+        public Double getBefore() { return before; }
+        public Double getAfter() { return after; }
+    }
+
+    private RosterDiff() {}
+
+    /** What it takes to turn the roster of {@code from} into the roster of {@code to}. */
+    public static RosterDiff between(RosterDigest from, RosterDigest to) {
+        RosterDiff diff = new RosterDiff();
+        diff.compare(from, to, 1);
+        Comparator<Student> byId = Comparator.comparing(s -> IdCodec.normalize(s.getId()));
+        diff.added.sort(byId);
+        diff.removed.sort(byId);
+        diff.changed.sort(Comparator.comparing(c -> IdCodec.normalize(c.after.getId())));
+        return diff;
+    }
+
+    private void compare(RosterDigest from, RosterDigest to, int node) {
+        if (from.node(node) == to.node(node)) return;
+        if (node >= RosterDigest.LEAVES) {
+            compareBuckets(from.bucket(node - RosterDigest.LEAVES), to.bucket(node - RosterDigest.LEAVES));
+        } else {
+            compare(from, to, 2 * node);
+            compare(from, to, 2 * node + 1);
+        }
+    }
+
+    private void compareBuckets(RosterDigest.Bucket from, RosterDigest.Bucket to) {
+        bucketsCompared++;
+        int fromSize = from == null ? 0 : from.size, toSize = to == null ? 0 : to.size;
+        for (int i = 0; i < toSize; i++) {
+            Student s = to.students[i];
+            int j = fromSize == 0 ? -1 : from.indexOf(to.ids[i]);
+            if (j < 0) added.add(s);
+            else if (from.hashes[j] != to.hashes[i]) changed.add(new Change(new Student(from.students[j]), s)); // from may be a live roster
+        }
+        for (int j = 0; j < fromSize; j++) {
+            Student s = from.students[j];
+            if (toSize == 0 || to.indexOf(from.ids[j]) < 0) removed.add(s);
+        }
+    }
+
+    /* -------- Results -------- */
+    public boolean isEmpty() { return added.isEmpty() && removed.isEmpty() && changed.isEmpty(); }
+
+    /** Students only in {@code to}, by ID. */
+    public List<Student> getAdded() { return Collections.unmodifiableList(added); }
+
+    /** Students only in {@code from}, by ID. */
+    public List<Student> getRemoved() { return Collections.unmodifiableList(removed); }
+
+    public List<Change> getChanged() { return Collections.unmodifiableList(changed); }
+
+    /** How many leaf buckets had to be opened; the rest were skipped by hash. */
+    public int getBucketsCompared() { return bucketsCompared; }
+
+    /* -------- Patching -------- */
+    /**
+     * Applies the differences to {@code manager}, which should hold the
+     * {@code from} roster: removed students are removed, and added or changed
+     * ones are put in as copies of the {@code to} records. Students the diff
+     * does not mention are left alone. In versioned mode this is one undo step.
+     */
+    public void applyTo(StudentManager manager) {
+        manager.batch(() -> {
+            for (Student s : removed) manager.removeStudent(s.getId());
+            for (Change c : changed) manager.addStudent(new Student(c.after), DuplicatePolicy.REPLACE);
+            for (Student s : added) manager.addStudent(new Student(s), DuplicatePolicy.REPLACE);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + removed.size() + " removed, " + changed.size() + " changed";
+    }
+}
@@ -0,0 +1,149 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * Merkle tree over a roster's content, for finding what differs between two
+ * rosters without comparing every student (see RosterDiff).
+ *
+ * Every student has a 64-bit content hash over its ID (ignoring case), name,
+ * CGPA and grades with course names. Students are spread over 2^LEAF_BITS
+ * buckets by a hash of their ID, so a student lands in the same bucket in
+ * every roster; a bucket's hash is the sum of its students' hashes and each
+ * inner node hashes its two children. Two rosters with equal root hashes
+ * have the same content, and a diff only opens buckets whose hashes differ.
+ *
+ * A StudentManager keeps its digest up to date as students change (see
+ * StudentManager.digest()), re-hashing one student and the O(LEAF_BITS) nodes
+ * above it, so repeated syncs cost time proportional to what changed.
+ */
+public final class RosterDigest {
+    static final int LEAF_BITS = 16;
+    static final int LEAVES = 1 << LEAF_BITS;
+
+    private final long[] tree = new long[2 * LEAVES]; // node i has children 2i and 2i+1; leaves from LEAVES
+    private final Bucket[] buckets = new Bucket[LEAVES];
+    private int size;
+
+    /** The students of one leaf with their normalized IDs and hashes; a handful per bucket on large rosters. */
+    static final class Bucket {
+        String[] ids = new String[2];
+        Student[] students = new Student[2];
+        long[] hashes = new long[2];
+        int size;
+
+        int indexOf(String normalizedId) {
+            for (int i = 0; i < size; i++) if (ids[i].equals(normalizedId)) return i;
+            return -1;
+        }
+    }
+
+    RosterDigest() {}
+
+    /** The digest of {@code students}, e.g. a saved roster; a later student with a repeated ID replaces the earlier one. */
+    public static RosterDigest of(Collection<Student> students) {
+        RosterDigest d = new RosterDigest();
+        for (Student s : students) d.insert(s, false);
+        for (int i = LEAVES - 1; i >= 1; i--) d.tree[i] = node(d.tree[2 * i], d.tree[2 * i + 1]);
+        return d;
+    }
+
+    public int size() { return size; }
+
+    /** Equal for two rosters with the same content. */
+    public long rootHash() { return tree[1]; }
+
+    /* -------- Maintenance -------- */
+    /** Adds the student, or re-hashes the one with the same ID. */
+    void put(Student s) { insert(s, true); }
+
+    void remove(String id) {
+        String key = IdCodec.normalize(id);
+        int leaf = leafOf(key);
+        Bucket b = buckets[leaf];
+        int i = b == null ? -1 : b.indexOf(key);
+        if (i < 0) return;
+        tree[LEAVES + leaf] -= b.hashes[i];
+        b.size--;
+        b.ids[i] = b.ids[b.size];
+        b.students[i] = b.students[b.size];
+        b.hashes[i] = b.hashes[b.size];
+        b.ids[b.size] = null;
+        b.students[b.size] = null;
+        size--;
+        rehashPath(leaf);
+    }
+
+    private void insert(Student s, boolean updatePath) {
+        String key = IdCodec.normalize(s.getId());
+        int leaf = leafOf(key);
+        Bucket b = buckets[leaf];
+        if (b == null) b = buckets[leaf] = new Bucket();
+        long h = hash(key, s);
+        int i = b.indexOf(key);
+        if (i >= 0) {
+            tree[LEAVES + leaf] += h - b.hashes[i];
+            b.students[i] = s;
+            b.hashes[i] = h;
+        } else {
+            if (b.size == b.students.length) {
+                b.ids = Arrays.copyOf(b.ids, b.size * 2);
+                b.students = Arrays.copyOf(b.students, b.size * 2);
+                b.hashes = Arrays.copyOf(b.hashes, b.size * 2);
+            }
+            b.ids[b.size] = key;
+            b.students[b.size] = s;
+            b.hashes[b.size++] = h;
+            tree[LEAVES + leaf] += h;
+            size++;
+        }
+        if (updatePath) rehashPath(leaf);
+    }
+
+    private void rehashPath(int leaf) {
+        for (int i = (LEAVES + leaf) >>> 1; i >= 1; i >>>= 1) tree[i] = node(tree[2 * i], tree[2 * i + 1]);
+    }
+
+    /* -------- Tree access for RosterDiff -------- */
+    long node(int i) { return tree[i]; }
+
+    Bucket bucket(int leaf) { return buckets[leaf]; }
+
+    /* -------- Hashing -------- */
+    static int leafOf(String normalizedId) {
+        return (int) (mix(normalizedId.hashCode() * 0x9E3779B97F4A7C15L) >>> (64 - LEAF_BITS));
+    }
+
+    private static long node(long left, long right) {
+        return mix(left * 0xC2B2AE3D27D4EB4FL + right);
+    }
+
+    /** Content hash of one student. Grades are summed, so their map order does not matter. */
+    private static long hash(String normalizedId, Student s) {
+        long h = text(0xCBF29CE484222325L, normalizedId);
+        h = text(h * 0x100000001B3L, s.getName() == null ? "" : s.getName());
+        h = mix(h ^ Double.doubleToLongBits(s.getCgpa()));
+        long grades = 0;
+        for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+            long gh = text(0x84222325CBF29CE4L, g.getKey());
+            gh = text(gh * 0x100000001B3L, s.getCourseName(g.getKey()));
+            grades += mix(gh ^ Double.doubleToLongBits(g.getValue()));
+        }
+        return mix(h + grades * 0x9E3779B97F4A7C15L);
+    }
+
+    /** FNV-1a over the characters. */
+    private static long text(long h, String s) {
+        for (int i = 0; i < s.length(); i++) h = (h ^ s.charAt(i)) * 0x100000001B3L;
+        return h;
+    }
+
+    /** MurmurHash3's 64-bit finaliser. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,107 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+/**
+ * Immutable, point-in-time copy of a roster for readers on other threads.
+ *
+ * It is built on the thread that owns the StudentManager (see
+ * StudentManager.snapshot()), or from a fixed version of a versioned manager
+ * on any thread (see StudentManager.snapshotOnDemand()), and can then be read
+ * concurrently without locks.
+ * Derived views (CGPA order, course totals) are computed on first use and
+ * kept for the life of the snapshot.
+ */
+public final class RosterSnapshot {
+
+    /** One student as it was when the snapshot was taken. */
+    public static final class Entry {
+        private final String id;
+        private final String name;
+        private final double cgpa;
+        private final Map<String, Double> grades;
+
+        Entry(Student s) {
+            this.id = s.getId();
+            this.name = s.getName();
+            this.cgpa = s.getCgpa();
+            this.grades = Map.copyOf(s.getGrades());
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public double getCgpa() { return cgpa; }
+        public Map<String, Double> getGrades() { return grades; }
+    }
+
+    private final long version;
+    private final Entry[] entries;
+    private final Map<String, Entry> byId;
+    private final String[] lowerNames;
+
+    private volatile Entry[] byCgpaDesc;                 // computed on first top() call
+    private volatile Map<String, double[]> courseTotals; // course -> {sum, count}
+
+    RosterSnapshot(long version, Collection<Student> students) {
+        this.version = version;
+        this.entries = new Entry[students.size()];
+        this.byId = new HashMap<>(students.size() * 2);
+        this.lowerNames = new String[students.size()];
+        int i = 0;
+        for (Student s : students) {
+            Entry e = new Entry(s);
+            entries[i] = e;
+            lowerNames[i++] = e.name == null ? "" : e.name.toLowerCase();
+            byId.put(IdCodec.normalize(e.id), e);
+        }
+    }
+
+    /** Increases with every snapshot taken from the same manager. */
+    public long getVersion() { return version; }
+
+    public int size() { return entries.length; }
+
+    /** Lookup ignoring case, like the roster's own. */
+    public Entry get(String id) { return byId.get(IdCodec.normalize(id)); }
+
+    /** Students whose name contains {@code part} (case-insensitive), in roster order. */
+    public List<Entry> searchByName(String part, int limit) {
+        String needle = part.toLowerCase();
+        List<Entry> found = new ArrayList<>();
+        for (int i = 0; i < entries.length && found.size() < limit; i++) {
+            if (lowerNames[i].contains(needle)) found.add(entries[i]);
+        }
+        return found;
+    }
+
+    /** The {@code k} highest CGPAs. */
+    public List<Entry> top(int k) {
+        Entry[] sorted = byCgpaDesc;
+        if (sorted == null) {
+            sorted = entries.clone();
+            Arrays.sort(sorted, Comparator.comparingDouble(Entry::getCgpa).reversed());
+            byCgpaDesc = sorted;
+        }
+        return List.of(Arrays.copyOf(sorted, Math.min(k, sorted.length)));
+    }
+
+    /** {sum, count} of the scores for a course, or null if nobody has a score for it. */
+    public double[] courseTotals(String courseCode) {
+        Map<String, double[]> totals = courseTotals;
+        if (totals == null) {
+            // one pass computes every course, later lookups are O(1)
+            totals = new HashMap<>();
+            for (Entry e : entries) {
+                for (Map.Entry<String, Double> g : e.grades.entrySet()) {
+                    double[] t = totals.computeIfAbsent(g.getKey(), c -> new double[2]);
+                    t[0] += g.getValue();
+                    t[1]++;
+                }
+            }
+            courseTotals = totals;
+        }
+        return totals.get(courseCode);
+    }
+}
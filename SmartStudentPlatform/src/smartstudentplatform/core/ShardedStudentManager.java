@@ -0,0 +1,207 @@
+package smartstudentplatform.core;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Thread-safe facade over N independent StudentManager shards.
+ *
+ * Students are hash-partitioned by ID, so point operations (add, update,
+ * lookup, results) lock and touch a single shard. Scans, sorts and aggregates
+ * run on every shard in parallel and the partial results are merged: sorted
+ * output with a k-way heap merge, averages by adding up partial sums.
+ */
+public class ShardedStudentManager {
+    private final StudentManager[] shards;
+
+    public ShardedStudentManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ShardedStudentManager(int shardCount) {
+        if (shardCount < 1) throw new IllegalArgumentException("Shard count must be at least 1");
+        shards = new StudentManager[shardCount];
+        for (int i = 0; i < shardCount; i++) shards[i] = new StudentManager();
+    }
+
+    public int shardCount() { return shards.length; }
+
+    private int shardIndex(String id) {
+        int h = IdCodec.normalize(id).hashCode(); // IDs differing only in case share a shard
+        h ^= (h >>> 16); // spread high bits, as HashMap does
+        return Math.floorMod(h, shards.length);
+    }
+
+    private StudentManager shardFor(String id) { return shards[shardIndex(id)]; }
+
+    /* -------- Point operations (one shard) -------- */
+    public void addStudent(Student s) {
+        StudentManager shard = shardFor(s.getId());
+        synchronized (shard) { shard.addStudent(s); }
+    }
+
+    public void addStudent(String id, String name, double cgpa) {
+        addStudent(new Student(id, name, cgpa));
+    }
+
+    public void updateStudentCgpa(String id, double newCgpa) {
+        StudentManager shard = shardFor(id);
+        synchronized (shard) { shard.updateStudentCgpa(id, newCgpa); }
+    }
+
+    public void removeStudent(String id) {
+        StudentManager shard = shardFor(id);
+        synchronized (shard) { shard.removeStudent(id); }
+    }
+
+    public Student getById(String id) {
+        StudentManager shard = shardFor(id);
+        synchronized (shard) { return shard.getById(id); }
+    }
+
+    public void addResult(String studentId, Course course, double score) {
+        StudentManager shard = shardFor(studentId);
+        synchronized (shard) { shard.addResult(studentId, course, score); }
+    }
+
+    /* -------- Bulk ingestion -------- */
+    /** Routes a batch to its shards and loads every shard's share in parallel. */
+    public void addAll(Collection<Student> batch, DuplicatePolicy policy) {
+        List<List<Student>> perShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) perShard.add(new ArrayList<>());
+        for (Student s : batch) perShard.get(shardIndex(s.getId())).add(s);
+        IntStream.range(0, shards.length).parallel().forEach(i -> {
+            StudentManager shard = shards[i];
+            synchronized (shard) {
+                for (Student s : perShard.get(i)) shard.addStudent(s, policy);
+            }
+        });
+    }
+
+    /* -------- Scans (all shards in parallel) -------- */
+    public int size() {
+        int n = 0;
+        for (StudentManager shard : shards) {
+            synchronized (shard) { n += shard.size(); }
+        }
+        return n;
+    }
+
+    /**
+     * Runs {@code action} on each shard in turn while holding that shard's lock,
+     * e.g. to save a shard without it changing underneath. Each shard is seen
+     * consistently; the shards are not frozen together.
+     */
+    public void forEachShard(Consumer<StudentManager> action) {
+        for (StudentManager shard : shards) {
+            synchronized (shard) { action.accept(shard); }
+        }
+    }
+
+    /** Every student, shard by shard. */
+    public List<Student> getAll() {
+        List<Student> all = new ArrayList<>();
+        for (StudentManager shard : shards) {
+            synchronized (shard) { all.addAll(shard.getAll()); }
+        }
+        return all;
+    }
+
+    public List<Student> sortedByName() { return sorted(s -> s.getName().toLowerCase(), Comparator.naturalOrder()); }
+    public List<Student> sortedByCgpaDesc() { return sorted(Student::getCgpa, Comparator.reverseOrder()); }
+    public List<Student> sortedById() { return sorted(Student::getId, String.CASE_INSENSITIVE_ORDER); }
+
+    /**
+     * Sorts each shard in parallel by {@code key} and k-way merges the runs.
+     * Under a shard's lock only each student's key and reference are copied,
+     * so writers wait for that copy and not for the sort, and changes made
+     * meanwhile cannot move keys mid-sort. The result holds the live
+     * students, ordered by their keys as each shard stood when it was read;
+     * a student changed since may be out of place. The shards themselves
+     * keep their order.
+     */
+    public <K> List<Student> sorted(Function<Student, ? extends K> key, Comparator<? super K> order) {
+        @SuppressWarnings("unchecked")
+        Keyed<K>[][] runs = new Keyed[shards.length][];
+        Comparator<Keyed<K>> byKey = (a, b) -> order.compare(a.key, b.key);
+        IntStream.range(0, shards.length).parallel().forEach(i -> {
+            Keyed<K>[] run = keyed(shards[i], key);
+            Arrays.sort(run, byKey);
+            runs[i] = run;
+        });
+
+        int total = 0;
+        for (Keyed<K>[] run : runs) total += run.length;
+        List<Student> merged = new ArrayList<>(total);
+
+        // heap entries are {run, position}; ties go to the lower run so the merge is stable
+        PriorityQueue<int[]> heap = new PriorityQueue<>(Math.max(1, runs.length), (a, b) -> {
+            int cmp = byKey.compare(runs[a[0]][a[1]], runs[b[0]][b[1]]);
+            return cmp != 0 ? cmp : Integer.compare(a[0], b[0]);
+        });
+        for (int r = 0; r < runs.length; r++) {
+            if (runs[r].length > 0) heap.add(new int[]{r, 0});
+        }
+        while (!heap.isEmpty()) {
+            int[] top = heap.poll();
+            merged.add(runs[top[0]][top[1]].student);
+            if (++top[1] < runs[top[0]].length) heap.add(top);
+        }
+        return merged;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> Keyed<K>[] keyed(StudentManager shard, Function<Student, ? extends K> key) {
+        synchronized (shard) {
+            List<Student> live = shard.getAll();
+            Keyed<K>[] run = new Keyed[live.size()];
+            for (int k = 0; k < run.length; k++) run[k] = new Keyed<>(key.apply(live.get(k)), live.get(k));
+            return run;
+        }
+    }
+
+    /** A student with its sort key as read under the shard's lock. */
+    private static final class Keyed<K> {
+        final K key;
+        final Student student;
+
+        Keyed(K key, Student student) {
+            this.key = key;
+            this.student = student;
+        }
+    }
+
+    /* -------- Aggregates (partial results combined) -------- */
+    public double classAverage(String courseCode) {
+        double[] total = IntStream.range(0, shards.length).parallel()
+                .mapToObj(i -> {
+                    synchronized (shards[i]) { return shards[i].courseTotals(courseCode); }
+                })
+                .reduce(new double[]{0, 0}, (a, b) -> new double[]{a[0] + b[0], a[1] + b[1]});
+        if (total[1] == 0) throw new IllegalStateException("No scores for course " + courseCode);
+        return total[0] / total[1];
+    }
+
+    public Optional<Student> topPerformerByCgpa() {
+        return IntStream.range(0, shards.length).parallel()
+                .mapToObj(i -> {
+                    synchronized (shards[i]) { return shards[i].topPerformerByCgpa(); }
+                })
+                .flatMap(Optional::stream)
+                .max(Comparator.comparingDouble(Student::getCgpa));
+    }
+
+    public Optional<Student> topPerformerByAvgScore() {
+        return IntStream.range(0, shards.length).parallel()
+                .mapToObj(i -> {
+                    synchronized (shards[i]) { return shards[i].topPerformerByAvgScore(); }
+                })
+                .flatMap(Optional::stream)
+                .max(Comparator.comparingDouble(StudentManager::averageScore));
+    }
+}
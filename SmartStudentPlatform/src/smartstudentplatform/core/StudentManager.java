@@ -3,114 +3,618 @@ package smartstudentplatform.core;
 import smartstudentplatform.model.Student;
 import smartstudentplatform.model.Course;
 import smartstudentplatform.util.Algorithms;
+import smartstudentplatform.util.CsvReader;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class StudentManager {
-    private final List<Student> students = new ArrayList<>();             // ordered list
-    private final Map<String, Student> indexById = new HashMap<>();       // fast lookup
+    private List<Student> students = new ArrayList<>();             // ordered list
+    private final IdCodec idCodec;
+    private IdIndex indexById;                                      // fast lookup, ignoring case
+    private Map<Student, Integer> positions;                        // list index per student, see positionOf()
 
-    public List<Student> getAll() { return students; }
+    private GradeHistory history;   // optional, see setHistory()
+    private String currentTerm;
+    private long snapshotVersion;
+    private CourseIndex courseIndex; // built on the first course query, see courseIndex()
+    private PeerIndex peerIndex;     // built on the first similarity query, see peerIndex()
+    private RosterDigest digest;     // built on the first diff, see digest()
+
+    // Versioned mode: the roster is an immutable PersistentRoster instead of the list and map above
+    private final boolean versioned;
+    private PersistentRoster roster;
+    private List<Student> rosterView;   // roster.students(), until the next change
+    private List<Student> idOrder;      // roster sorted by ID for binarySearch(), made from idOrderOf
+    private PersistentRoster idOrderOf;
+    private final Deque<PersistentRoster> undo = new ArrayDeque<>();
+    private final Deque<PersistentRoster> redo = new ArrayDeque<>();
+    private int undoLimit = 100;
+    private int batchDepth;
+    private PersistentRoster batchStart;
+
+    public StudentManager() {
+        this(false);
+    }
+
+    /** IDs are packed with {@code idCodec} in the ID index (IdCodec.STANDARD by default). */
+    public StudentManager(IdCodec idCodec) {
+        this(false, idCodec);
+    }
+
+    /**
+     * With {@code versioned} set, every change produces a new PersistentRoster
+     * version sharing structure with the previous one, which makes undo/redo,
+     * version() and fork() cheap. Changed students are copied rather than
+     * modified in place, so change students only through the manager.
+     */
+    public StudentManager(boolean versioned) {
+        this(versioned, IdCodec.STANDARD);
+    }
+
+    private StudentManager(boolean versioned, IdCodec idCodec) {
+        this.versioned = versioned;
+        this.idCodec = idCodec;
+        if (versioned) roster = PersistentRoster.EMPTY;
+        else indexById = new IdIndex(idCodec);
+    }
+
+    /** The roster in order; read-only in versioned mode. */
+    public List<Student> getAll() {
+        if (!versioned) return students;
+        if (rosterView == null) rosterView = roster.students();
+        return rosterView;
+    }
+
+    private Student lookup(String id) {
+        return versioned ? roster.get(id) : indexById.get(id);
+    }
+
+    /**
+     * Immutable copy of the roster that other threads can read without locks.
+     * Call it on the thread that mutates this manager (the EDT in the GUI).
+     */
+    public RosterSnapshot snapshot() {
+        return new RosterSnapshot(++snapshotVersion, getAll());
+    }
+
+    /**
+     * The snapshot of the current version, built by whichever thread first calls
+     * get(), in O(1) here. Versioned mode only: a version's students are never
+     * changed in place, so the copy can be taken later, and not at all if no
+     * reader asks for it.
+     */
+    public Supplier<RosterSnapshot> snapshotOnDemand() {
+        requireVersioned();
+        PersistentRoster version = roster;
+        long number = ++snapshotVersion;
+        return () -> new RosterSnapshot(number, version.students());
+    }
+
+    /* -------- Versions: undo, redo and forks (versioned mode) -------- */
+    public boolean isVersioned() { return versioned; }
+
+    /**
+     * The current version in O(1). It never changes afterwards, so it is a
+     * consistent input for reports while editing goes on.
+     */
+    public PersistentRoster version() {
+        requireVersioned();
+        return roster;
+    }
+
+    /** Makes {@code version} (e.g. from version() or a fork) current, as one undoable step. */
+    public void restore(PersistentRoster version) {
+        requireVersioned();
+        commit(version);
+        dropIndexes();
+    }
+
+    /**
+     * A separate versioned manager starting from the current version in O(1),
+     * for what-if changes that must not touch this roster. It has no undo
+     * steps and no grade history of its own.
+     */
+    public StudentManager fork() {
+        requireVersioned();
+        StudentManager fork = new StudentManager(true, idCodec);
+        fork.roster = roster;
+        return fork;
+    }
+
+    /**
+     * Runs {@code changes} as a single undo step, e.g. curving every score in
+     * a course. Calls may be nested.
+     */
+    public void batch(Runnable changes) {
+        if (!versioned) { changes.run(); return; }
+        if (batchDepth++ == 0) batchStart = roster;
+        try {
+            changes.run();
+        } finally {
+            if (--batchDepth == 0) {
+                if (roster != batchStart) pushUndo(batchStart);
+                batchStart = null;
+            }
+        }
+    }
+
+    public boolean canUndo() { return !undo.isEmpty(); }
+    public boolean canRedo() { return !redo.isEmpty(); }
+
+    /** Steps back one change. Grade history entries are not taken back. */
+    public boolean undo() {
+        return step(undo, redo);
+    }
+
+    public boolean redo() {
+        return step(redo, undo);
+    }
+
+    /** How many undo steps are kept (100 by default); older ones are dropped. */
+    public void setUndoLimit(int limit) {
+        if (limit < 0) throw new IllegalArgumentException("Undo limit must not be negative");
+        undoLimit = limit;
+        while (undo.size() > limit) undo.removeLast();
+    }
+
+    private boolean step(Deque<PersistentRoster> from, Deque<PersistentRoster> to) {
+        if (batchDepth > 0) throw new IllegalStateException("Cannot undo or redo inside a batch");
+        if (from.isEmpty()) return false;
+        to.push(roster);
+        roster = from.pop();
+        rosterView = null;
+        dropIndexes();
+        return true;
+    }
+
+    /** Makes {@code next} the current version, keeping the previous one for undo. */
+    private void commit(PersistentRoster next) {
+        if (next == roster) return;
+        if (batchDepth == 0) pushUndo(roster);
+        roster = next;
+        rosterView = null;
+    }
+
+    private void pushUndo(PersistentRoster previous) {
+        redo.clear();
+        if (undoLimit == 0) return;
+        undo.push(previous);
+        if (undo.size() > undoLimit) undo.removeLast();
+    }
+
+    /**
+     * The student to change: {@code s} itself, or in versioned mode a copy
+     * that replaces it in a new version, leaving older versions untouched.
+     */
+    private Student editable(Student s) {
+        if (!versioned) return s;
+        Student copy = new Student(s);
+        commit(roster.replace(copy));
+        return copy;
+    }
+
+    private void requireVersioned() {
+        if (!versioned) throw new IllegalStateException("This StudentManager is not versioned");
+    }
+
+    /* -------- Grade history -------- */
+    /**
+     * Attach a history store. While a current term is set, new results and CGPA
+     * changes are also appended to the history under that term.
+     */
+    public void setHistory(GradeHistory history) { this.history = history; }
+    public GradeHistory getHistory() { return history; }
+    public void setCurrentTerm(String term) { this.currentTerm = term; }
+    public String getCurrentTerm() { return currentTerm; }
+
+    private boolean recordingHistory() { return history != null && currentTerm != null; }
 
     /* -------- Add / Update -------- */
     public void addStudent(Student s) {
-        if (indexById.containsKey(s.getId()))
+        if (lookup(s.getId()) != null)
             throw new IllegalArgumentException("Student with ID " + s.getId() + " already exists");
-        students.add(s);
-        indexById.put(s.getId(), s);
+        if (versioned) {
+            commit(roster.add(s));
+        } else {
+            students.add(s);
+            indexById.put(s);
+            if (positions != null) positions.put(s, students.size() - 1);
+        }
+        if (courseIndex != null) courseIndex.addStudent(s);
+        if (peerIndex != null) peerIndex.add(s);
+        if (digest != null) digest.put(s);
+        if (recordingHistory()) history.recordCgpa(currentTerm, s.getId(), s.getCgpa());
     }
 
     public void addStudent(String id, String name, double cgpa) {
         addStudent(new Student(id, name, cgpa)); // overloaded form
     }
 
+    /** Adds the student, or resolves the clash with an existing ID using {@code policy}. */
+    public void addStudent(Student s, DuplicatePolicy policy) {
+        Student existing = lookup(s.getId());
+        if (existing == null) { addStudent(s); return; }
+        if (policy == DuplicatePolicy.SKIP) return;
+        if (courseIndex != null) courseIndex.removeStudent(existing); // MERGE changes it in place
+        Student kept = resolveDuplicate(policy == DuplicatePolicy.MERGE ? editable(existing) : existing, s, policy);
+        if (kept != existing) {
+            if (versioned) {
+                commit(roster.replace(kept));
+            } else {
+                int at = positionOf(existing);
+                students.set(at, kept);
+                positions.remove(existing);
+                positions.put(kept, at);
+                indexById.put(kept);
+            }
+        }
+        if (courseIndex != null) courseIndex.addStudent(kept);
+        if (peerIndex != null) {
+            if (kept != existing) peerIndex.remove(existing); // the ID may differ in case
+            peerIndex.add(kept);                            // re-hashes the ID's profile
+        }
+        if (digest != null) digest.put(kept);
+    }
+
+    /**
+     * Where {@code s} is in the plain-mode list, so replacing a student costs
+     * O(1) rather than a scan. The map is built on the first replacement, kept
+     * up to date by adds and replacements, and rebuilt in O(n) if the list
+     * was reordered or shrunk since (also through getAll()).
+     */
+    private int positionOf(Student s) {
+        Integer at = positions == null ? null : positions.get(s);
+        if (at == null || at >= students.size() || students.get(at) != s) {
+            positions = new IdentityHashMap<>(students.size() * 2);
+            for (int i = 0; i < students.size(); i++) positions.put(students.get(i), i);
+            at = positions.get(s);
+        }
+        return at;
+    }
+
+    public Student getById(String id) { return lookup(id); }
+
+    public int size() { return versioned ? roster.size() : students.size(); }
+
     public void updateStudentCgpa(String id, double newCgpa) {
-        Student s = indexById.get(id);
+        Student s = lookup(id);
         if (s == null) throw new NoSuchElementException("No student with ID " + id);
+        s = editable(s);
         s.setCgpa(newCgpa);
+        if (digest != null) digest.put(s);
+        if (recordingHistory()) history.recordCgpa(currentTerm, s.getId(), newCgpa);
     }
 
     public void removeStudent(String id) {
-        Student s = indexById.remove(id);
-        if (s != null) students.remove(s);
+        Student s = versioned ? roster.get(id) : indexById.remove(id);
+        if (s != null) {
+            if (versioned) commit(roster.remove(id));
+            else {
+                students.remove(s);
+                positions = null; // the later students moved up
+            }
+            if (courseIndex != null) courseIndex.removeStudent(s);
+            if (peerIndex != null) peerIndex.remove(s);
+            if (digest != null) digest.remove(s.getId());
+        }
     }
 
     /* -------- Searching -------- */
     public Student linearSearch(String id) {
-        return Algorithms.linearSearchById(students, id);
+        return Algorithms.linearSearchById(getAll(), id);
     }
 
+    /**
+     * Sorts the roster by ID first; in versioned mode it searches an ID-sorted
+     * copy kept per version instead, so a search never adds an undo step.
+     */
     public Student binarySearch(String id) {
-        Algorithms.insertionSortById(students); // ensure sorted by ID
-        return Algorithms.binarySearchById(students, id);
+        if (!versioned) {
+            reorder(Algorithms::insertionSortById); // ensure sorted by ID
+            return Algorithms.binarySearchById(students, id);
+        }
+        if (idOrderOf != roster) {
+            idOrder = new ArrayList<>(getAll());
+            idOrder.sort(Algorithms.BY_ID);
+            idOrderOf = roster;
+        }
+        return Algorithms.binarySearchById(idOrder, id);
     }
 
     /* -------- Sorting -------- */
-    public void sortByNameQuick() { Algorithms.quickSortByName(students); }
-    public void sortByCgpaBubbleDesc() { Algorithms.bubbleSortByCgpa(students); }
-    public void sortByIdInsertion() { Algorithms.insertionSortById(students); }
+    public void sortByNameQuick() { reorder(Algorithms::quickSortByName); }
+    public void sortByCgpaBubbleDesc() { reorder(Algorithms::bubbleSortByCgpa); }
+    public void sortByIdInsertion() { reorder(Algorithms::insertionSortById); }
+
+    /** O(n log n) library sort, e.g. with Algorithms.BY_NAME, for rosters too big for the teaching sorts. */
+    public void sort(Comparator<Student> order) { reorder(list -> list.sort(order)); }
+
+    /** Sorts in place, or in versioned mode sorts a copy and makes it a new version if the order changed. */
+    private void reorder(Consumer<List<Student>> sorter) {
+        if (!versioned) { sorter.accept(students); positions = null; return; }
+        List<Student> before = getAll();
+        List<Student> sorted = new ArrayList<>(before);
+        sorter.accept(sorted);
+        Iterator<Student> it = before.iterator();
+        for (Student s : sorted) {
+            if (it.next() != s) { commit(PersistentRoster.of(sorted)); return; }
+        }
+    }
 
     /* -------- Results (grades) -------- */
     public void addResult(String studentId, Course course, double score) {
-        Student s = indexById.get(studentId);
+        Student s = lookup(studentId);
         if (s == null) throw new NoSuchElementException("No student with ID " + studentId);
         if (score < 0 || score > 100) throw new IllegalArgumentException("Score must be 0..100");
+        Double previous = s.getGrades().get(course.getCode());
+        s = editable(s);
         s.addGrade(course.getCode(), course.getName(), score);
+        if (courseIndex != null) courseIndex.setScore(s.getId(), course.getCode(), previous, score);
+        if (peerIndex != null) peerIndex.add(s);
+        if (digest != null) digest.put(s);
+        if (recordingHistory()) history.recordGrade(currentTerm, s.getId(), course.getCode(), score);
+    }
+
+    /* -------- Course queries -------- */
+    // Answered from an inverted index (see CourseIndex) in O(log n) plus the size of the
+    // answer. It is built on first use and then kept up to date by addStudent, addResult
+    // and removeStudent, so grades must be changed through this manager to show up here.
+
+    /** Students with a score below {@code threshold} in the course, lowest first. */
+    public List<Student> studentsScoringBelow(String courseCode, double threshold) {
+        return resolve(courseIndex().studentIds(courseCode, Double.NEGATIVE_INFINITY, threshold));
+    }
+
+    /** Students with a score in [{@code min}, {@code max}] in the course, lowest first. */
+    public List<Student> studentsScoringBetween(String courseCode, double min, double max) {
+        return resolve(courseIndex().studentIds(courseCode, min, Math.nextUp(max)));
+    }
+
+    public int countScoringBelow(String courseCode, double threshold) {
+        return courseIndex().count(courseCode, Double.NEGATIVE_INFINITY, threshold);
+    }
+
+    public int countScoringBetween(String courseCode, double min, double max) {
+        return courseIndex().count(courseCode, min, Math.nextUp(max));
+    }
+
+    /** Every student with a score in the course, lowest first. */
+    public List<Student> enrolledIn(String courseCode) {
+        return resolve(courseIndex().studentIds(courseCode));
+    }
+
+    public int enrolledCount(String courseCode) { return courseIndex().count(courseCode); }
+
+    /** Codes of all courses that have at least one score. */
+    public Set<String> courseCodes() { return courseIndex().courses(); }
+
+    private CourseIndex courseIndex() {
+        if (courseIndex == null) courseIndex = CourseIndex.build(getAll());
+        return courseIndex;
+    }
+
+    private List<Student> resolve(List<String> ids) {
+        List<Student> found = new ArrayList<>(ids.size());
+        for (String id : ids) found.add(lookup(id));
+        return found;
+    }
+
+    /* -------- Peer search -------- */
+    /**
+     * Up to {@code k} students whose grade profile (courses taken and how well)
+     * is most similar to this student's, most similar first. Approximate on
+     * large rosters; see PeerIndex. Empty for a student without grades.
+     */
+    public List<Student> similarStudents(String id, int k) {
+        Student s = lookup(id);
+        if (s == null) throw new NoSuchElementException("No student with ID " + id);
+        if (peerIndex == null) peerIndex = PeerIndex.build(getAll());
+        List<Student> peers = peerIndex.nearest(s, k);
+        if (versioned) peers.replaceAll(p -> lookup(p.getId())); // the index may hold an older copy
+        return peers;
+    }
+
+    /* -------- Diff and sync -------- */
+    /**
+     * Merkle digest of the roster's content, for comparing it with another
+     * roster (see RosterDiff). It is built on first use and then kept up to
+     * date by the changes made through this manager, so repeated diffs only
+     * cost as much as what changed in between.
+     */
+    public RosterDigest digest() {
+        if (digest == null) digest = RosterDigest.of(getAll());
+        return digest;
+    }
+
+    /** What it takes to turn this roster into {@code other}'s. */
+    public RosterDiff diffTo(StudentManager other) {
+        return RosterDiff.between(digest(), other.digest());
     }
 
     /* -------- Summaries -------- */
     public double classAverage(String courseCode) {
+        double[] totals = courseTotals(courseCode);
+        if (totals[1] == 0) throw new IllegalStateException("No scores for course " + courseCode);
+        return totals[0] / totals[1];
+    }
+
+    /** {sum, count} of the scores for a course, so partial totals can be combined. */
+    double[] courseTotals(String courseCode) {
         double sum = 0; int n = 0;
-        for (Student s : students) {
+        for (Student s : getAll()) {
             Double sc = s.getGrades().get(courseCode);
             if (sc != null) { sum += sc; n++; }
         }
-        if (n == 0) throw new IllegalStateException("No scores for course " + courseCode);
-        return sum / n;
+        return new double[]{sum, n};
     }
 
     public Optional<Student> topPerformerByCgpa() {
-        return students.stream().max(Comparator.comparingDouble(Student::getCgpa));
+        return getAll().stream().max(Comparator.comparingDouble(Student::getCgpa));
     }
 
     public Optional<Student> topPerformerByAvgScore() {
-        return students.stream().max(Comparator.comparingDouble(s -> {
-            if (s.getGrades().isEmpty()) return -1; // treat as lowest
-            double sum = 0;
-            for (double v : s.getGrades().values()) sum += v;
-            return sum / s.getGrades().size();
-        }));
+        return getAll().stream().max(Comparator.comparingDouble(StudentManager::averageScore));
+    }
+
+    static double averageScore(Student s) {
+        if (s.getGrades().isEmpty()) return -1; // treat as lowest
+        double sum = 0;
+        for (double v : s.getGrades().values()) sum += v;
+        return sum / s.getGrades().size();
     }
 
     /* -------- CSV File Handling -------- */
     public void saveToCSV(File file) throws IOException {
-        try (FileWriter writer = new FileWriter(file)) {
+        try (Writer writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8))) {
             writer.append("ID,Name,CGPA\n"); // header
-            for (Student s : students) {
-                writer.append(s.getId()).append(",");
-                writer.append(s.getName()).append(",");
+            for (Student s : getAll()) {
+                writer.append(CsvReader.escape(s.getId())).append(",");
+                writer.append(CsvReader.escape(s.getName())).append(",");
                 writer.append(String.valueOf(s.getCgpa())).append("\n");
             }
         }
     }
 
     public void loadFromCSV(File file) throws IOException {
-        students.clear();
-        indexById.clear();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            boolean firstLine = true;
-            while ((line = br.readLine()) != null) {
-                if (firstLine) { firstLine = false; continue; } // skip header
-                String[] values = line.split(",");
-                if (values.length >= 3) {
-                    String id = values[0].trim();
-                    String name = values[1].trim();
-                    double cgpa = Double.parseDouble(values[2].trim());
-                    addStudent(new Student(id, name, cgpa));
+        loadFromCSV(file, DuplicatePolicy.SKIP);
+    }
+
+    /**
+     * Streams the file into a Staging roster and swaps it in only once every row
+     * has parsed, so a bad row leaves the current roster untouched.
+     * An optional fourth column holds grades in the Student.toCSV() format.
+     */
+    public void loadFromCSV(File file, DuplicatePolicy policy) throws IOException {
+        Staging staging = stage(policy);
+        try (CsvReader csv = new CsvReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            csv.next(); // skip header
+            List<String> values;
+            while ((values = csv.next()) != null) {
+                if (values.size() == 1 && values.get(0).isBlank()) continue; // blank line
+                if (values.size() < 3)
+                    throw new IOException("Line " + csv.getLineNumber() + ": expected ID,Name,CGPA");
+
+                Student s;
+                try {
+                    s = new Student(values.get(0).trim(), values.get(1).trim(),
+                            Double.parseDouble(values.get(2).trim()));
+                    if (values.size() > 3) s.addGrades(values.get(3).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Line " + csv.getLineNumber() + ": " + e.getMessage(), e);
                 }
+
+                staging.add(s);
+            }
+        }
+
+        staging.swapIn();
+    }
+
+    /**
+     * Replaces the whole roster with {@code loaded} in one step, resolving
+     * repeated IDs with {@code policy}.
+     *
+     * @return how many students repeated an ID seen earlier
+     */
+    public int replaceAll(Collection<Student> loaded, DuplicatePolicy policy) {
+        Staging staging = stage(policy);
+        for (Student s : loaded) staging.add(s);
+        staging.swapIn();
+        return staging.getDuplicates();
+    }
+
+    /** A new roster to fill and then swap in for this one; see Staging. */
+    public Staging stage(DuplicatePolicy policy) {
+        return new Staging(policy);
+    }
+
+    /**
+     * A roster being loaded to replace the manager's in one step. Students are
+     * added straight into the list and ID index the manager will use, so the
+     * swap copies nothing: while loading, memory holds the current roster plus
+     * the new students and their index, and the current roster becomes garbage
+     * at the swap. IDs differing only in case are duplicates.
+     */
+    public final class Staging {
+        private final DuplicatePolicy policy;
+        private final List<Student> order = new ArrayList<>();
+        private final IdIndex index = new IdIndex(idCodec);
+        // a REPLACE keeps the ID's place in the order: replacement -> student first staged with that ID
+        private final Map<Student, Student> replacing = new IdentityHashMap<>();
+        private int duplicates;
+        private boolean swapped;
+
+        private Staging(DuplicatePolicy policy) {
+            this.policy = policy;
+        }
+
+        public void add(Student s) {
+            if (swapped) throw new IllegalStateException("Staging roster already swapped in");
+            Student existing = index.get(s.getId());
+            if (existing == null) {
+                order.add(s);
+                index.put(s);
+                return;
+            }
+            duplicates++;
+            Student kept = resolveDuplicate(existing, s, policy);
+            if (kept == existing) return;
+            index.put(kept);
+            Student first = replacing.remove(existing);
+            replacing.put(kept, first != null ? first : existing);
+        }
+
+        public int size() { return order.size(); }
+
+        /** Students that repeated an ID staged earlier. */
+        public int getDuplicates() { return duplicates; }
+
+        /** Makes the staged roster the manager's; in versioned mode as one undo step. */
+        public void swapIn() {
+            if (swapped) throw new IllegalStateException("Staging roster already swapped in");
+            swapped = true;
+            if (!replacing.isEmpty()) {
+                Map<Student, Student> current = new IdentityHashMap<>(replacing.size());
+                replacing.forEach((now, first) -> current.put(first, now));
+                order.replaceAll(s -> current.getOrDefault(s, s));
             }
+            if (versioned) {
+                commit(PersistentRoster.of(order));
+            } else {
+                students = order;
+                indexById = index;
+                positions = null;
+            }
+            dropIndexes();
+        }
+    }
+
+    private void dropIndexes() {
+        courseIndex = null; // rebuilt on the next course query
+        peerIndex = null;
+        digest = null;
+    }
+
+    /** Returns the record to keep when {@code incoming} has the same ID as {@code existing}. */
+    static Student resolveDuplicate(Student existing, Student incoming, DuplicatePolicy policy) {
+        switch (policy) {
+            case SKIP:
+                return existing;
+            case REPLACE:
+                return incoming;
+            case MERGE:
+                existing.setName(incoming.getName());
+                existing.setCgpa(incoming.getCgpa());
+                for (Map.Entry<String, Double> g : incoming.getGrades().entrySet()) {
+                    existing.addGrade(g.getKey(), incoming.getCourseName(g.getKey()), g.getValue());
+                }
+                return existing;
+            default:
+                throw new IllegalArgumentException("Unknown duplicate policy " + policy);
         }
     }
 }
@@ -0,0 +1,320 @@
+package smartstudentplatform.load;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import smartstudentplatform.core.DuplicatePolicy;
+import smartstudentplatform.core.ShardedStudentManager;
+import smartstudentplatform.load.Workload.Operation;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.FileManager;
+import smartstudentplatform.util.Json;
+import smartstudentplatform.util.LatencyHistogram;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mixed-workload stress and soak runner for ShardedStudentManager.
+ *
+ * Worker threads draw operations from the Workload mix (lookups, grade
+ * inserts, CGPA updates, sorts, analytics) against one shared roster for a
+ * fixed time, while a background thread saves the roster periodically.
+ * Nothing is recorded during the warm-up; afterwards every operation's
+ * latency goes into a per-operation histogram. The report also gives the
+ * throughput, the bytes allocated by the load threads (via the HotSpot
+ * ThreadMXBean) and the GC pauses seen during the measured window.
+ *
+ * Each worker's random stream is derived from the workload seed, so runs
+ * with the same workload issue the same kinds of requests (timing, and so
+ * the exact interleaving, still varies).
+ */
+public class LoadHarness {
+    private static final double MISS_RATE = 0.05;   // lookups for IDs that do not exist
+    private static final double HOT_SKEW = 3;       // higher = lookups concentrate on fewer students
+
+    private final ShardedStudentManager manager;
+    private final Workload workload;
+    private final RosterGenerator generator;
+
+    private final LatencyHistogram[] latency = new LatencyHistogram[Operation.values().length];
+    private final LatencyHistogram saves = new LatencyHistogram();
+    private final LatencyHistogram gcPauses = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private volatile boolean measuring;
+
+    public LoadHarness(ShardedStudentManager manager, Workload workload) {
+        this.manager = manager;
+        this.workload = workload;
+        this.generator = workload.generator();
+        for (int i = 0; i < latency.length; i++) latency[i] = new LatencyHistogram();
+    }
+
+    /** A sharded roster filled with the workload's synthetic students. */
+    public static ShardedStudentManager populate(Workload workload) {
+        ShardedStudentManager manager = new ShardedStudentManager();
+        manager.addAll(workload.generator().students(workload.getStudents()), DuplicatePolicy.REPLACE);
+        return manager;
+    }
+
+    /* -------- Running -------- */
+    /** Runs the warm-up and the measured window, then returns what was measured. */
+    public Report run() throws InterruptedException {
+        List<String> ids = new ArrayList<>();
+        for (Student s : manager.getAll()) ids.add(s.getId());
+        if (ids.isEmpty()) throw new IllegalStateException("The roster is empty; populate it first");
+
+        long start = System.nanoTime();
+        long warmEnd = start + workload.getWarmupSeconds() * 1_000_000_000L;
+        long end = warmEnd + workload.getSeconds() * 1_000_000_000L;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < workload.getThreads(); t++) {
+            SplittableRandom random = new SplittableRandom(workload.getSeed() * 31 + t);
+            threads.add(Thread.ofPlatform().name("load-worker-" + t).start(() -> work(random, ids, warmEnd, end)));
+        }
+        if (workload.getSaveEverySeconds() > 0) {
+            threads.add(Thread.ofPlatform().name("load-saver").start(() -> saveLoop(warmEnd, end)));
+        }
+
+        List<NotificationEmitter> gcEmitters = new ArrayList<>();
+        NotificationListener gcListener = this::onGc;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+                gcEmitters.add((NotificationEmitter) gc);
+            }
+        }
+        try {
+            sleepUntil(warmEnd);
+            long[] gcBefore = gcTotals();
+            measuring = true;
+            sleepUntil(end);
+            measuring = false;
+            long[] gcAfter = gcTotals();
+            for (Thread t : threads) t.join();
+
+            return new Report(workload, ids.size(), end - warmEnd, latency, saves, errors.sum(),
+                    allocationSupported() ? allocatedBytes.sum() : -1,
+                    gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1], gcPauses);
+        } finally {
+            measuring = false;
+            for (NotificationEmitter e : gcEmitters) {
+                try {
+                    e.removeNotificationListener(gcListener);
+                } catch (Exception ignored) {
+                    // already gone
+                }
+            }
+        }
+    }
+
+    private void work(SplittableRandom r, List<String> ids, long warmEnd, long end) {
+        long allocStart = -1;
+        for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+            if (allocStart < 0 && now >= warmEnd) allocStart = threadAllocatedBytes();
+            Operation op = workload.pick(r);
+            try {
+                execute(op, r, ids);
+            } catch (RuntimeException e) {
+                if (now >= warmEnd) errors.increment();
+            }
+            long done = System.nanoTime();
+            if (now >= warmEnd) latency[op.ordinal()].record(done - now);
+        }
+        if (allocStart >= 0) allocatedBytes.add(threadAllocatedBytes() - allocStart);
+    }
+
+    private void execute(Operation op, SplittableRandom r, List<String> ids) {
+        switch (op) {
+            case LOOKUP:
+                manager.getById(r.nextDouble() < MISS_RATE ? "ZZZ" + r.nextInt(1_000_000) : hotId(r, ids));
+                break;
+            case GRADE:
+                manager.addResult(hotId(r, ids), generator.randomCourse(r), generator.score(r));
+                break;
+            case UPDATE:
+                manager.updateStudentCgpa(hotId(r, ids), r.nextInt(501) / 100.0);
+                break;
+            case SORT:
+                switch (r.nextInt(3)) {
+                    case 0: manager.sortedByName(); break;
+                    case 1: manager.sortedByCgpaDesc(); break;
+                    default: manager.sortedById(); break;
+                }
+                break;
+            case ANALYTICS:
+                switch (r.nextInt(3)) {
+                    case 0:
+                        try {
+                            manager.classAverage(generator.randomCourse(r).getCode());
+                        } catch (IllegalStateException noScores) {
+                            // a course nobody has taken yet is a normal answer here
+                        }
+                        break;
+                    case 1: manager.topPerformerByCgpa(); break;
+                    default: manager.topPerformerByAvgScore(); break;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operation " + op);
+        }
+    }
+
+    /** An existing ID, with a power-law bias towards the front of the list (hot students). */
+    private static String hotId(SplittableRandom r, List<String> ids) {
+        return ids.get((int) (ids.size() * Math.pow(r.nextDouble(), HOT_SKEW)));
+    }
+
+    private void saveLoop(long warmEnd, long end) {
+        File file = null;
+        try {
+            file = File.createTempFile("load-save", ".csv");
+            long interval = workload.getSaveEverySeconds() * 1_000_000_000L;
+            for (long next = System.nanoTime() + interval; next < end; next += interval) {
+                sleepUntil(next);
+                long t0 = System.nanoTime(), alloc = threadAllocatedBytes();
+                FileManager.saveAllData(manager, file);
+                if (t0 >= warmEnd) {
+                    saves.record(System.nanoTime() - t0);
+                    allocatedBytes.add(threadAllocatedBytes() - alloc);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Background save failed: " + e.getMessage());
+            errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (file != null) file.delete();
+        }
+    }
+
+    /* -------- JVM measurements -------- */
+    private void onGc(Notification n, Object handback) {
+        if (!measuring || !GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(n.getType())) return;
+        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData());
+        if (isPause(info.getGcName())) gcPauses.record(info.getGcInfo().getDuration() * 1_000_000L);
+    }
+
+    /** {collections, milliseconds} summed over the stop-the-world collectors. */
+    private static long[] gcTotals() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!isPause(gc.getName())) continue;
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    /** Concurrent collector beans (G1 Concurrent GC, ZGC Cycles, ...) time background work, not pauses. */
+    private static boolean isPause(String collector) {
+        return !collector.contains("Concurrent") && !collector.contains("Cycles");
+    }
+
+    private static boolean allocationSupported() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled();
+    }
+
+    /** Bytes allocated so far by the calling thread, or 0 where the JVM cannot tell. */
+    private static long threadAllocatedBytes() {
+        if (!allocationSupported()) return 0;
+        return Math.max(0, ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes());
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        for (long left; (left = deadline - System.nanoTime()) > 0; ) {
+            Thread.sleep(left / 1_000_000, (int) (left % 1_000_000));
+        }
+    }
+
+    /* -------- Report -------- */
+    /** What one run measured; {@link #toJson()} is the machine-readable form. */
+    public static class Report {
+        private final Workload workload;
+        private final int students;
+        private final long nanos;
+        private final LatencyHistogram[] latency;
+        private final LatencyHistogram saves;
+        private final long errors;
+        private final long allocatedBytes;
+        private final long gcCount, gcMillis;
+        private final LatencyHistogram gcPauses;
+
+        Report(Workload workload, int students, long nanos, LatencyHistogram[] latency, LatencyHistogram saves,
+               long errors, long allocatedBytes, long gcCount, long gcMillis, LatencyHistogram gcPauses) {
+            this.workload = workload;
+            this.students = students;
+            this.nanos = nanos;
+            this.latency = latency;
+            this.saves = saves;
+            this.errors = errors;
+            this.allocatedBytes = allocatedBytes;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+            this.gcPauses = gcPauses;
+        }
+
+        public long operations() {
+            long n = 0;
+            for (LatencyHistogram h : latency) n += h.count();
+            return n;
+        }
+
+        /** Operations per second over the measured window. */
+        public double throughput() { return operations() / (nanos / 1e9); }
+
+        public LatencyHistogram latency(Operation op) { return latency[op.ordinal()]; }
+
+        public long errors() { return errors; }
+
+        /** Bytes per second allocated by the load threads, or -1 if unknown. */
+        public double allocationRate() { return allocatedBytes < 0 ? -1 : allocatedBytes / (nanos / 1e9); }
+
+        public long gcCount() { return gcCount; }
+
+        public long gcMillis() { return gcMillis; }
+
+        public String toJson() {
+            StringBuilder sb = new StringBuilder("{\"workload\":").append(Json.quote(workload.toString()));
+            sb.append(",\"students\":").append(students);
+            sb.append(",\"ms\":").append(Json.millis(nanos));
+            sb.append(",\"ops\":").append(operations());
+            sb.append(",\"throughput\":").append(Math.round(throughput()));
+            sb.append(",\"errors\":").append(errors);
+            sb.append(",\"operations\":{");
+            boolean first = true;
+            for (Operation op : Operation.values()) {
+                LatencyHistogram h = latency[op.ordinal()];
+                if (h.count() == 0) continue;
+                if (!first) sb.append(',');
+                first = false;
+                sb.append(Json.quote(op.name().toLowerCase(Locale.ROOT))).append(":{\"throughput\":")
+                        .append(Math.round(h.count() / (nanos / 1e9))).append(",\"latencyMicros\":")
+                        .append(h.toJson()).append('}');
+            }
+            sb.append("},\"saveMicros\":").append(saves.toJson());
+            sb.append(",\"allocMBPerSec\":").append(allocatedBytes < 0 ? "null"
+                    : Json.number(Math.round(allocationRate() / (1 << 20) * 10) / 10.0));
+            sb.append(",\"allocBytesPerOp\":").append(allocatedBytes < 0 || operations() == 0 ? "null"
+                    : Long.toString(allocatedBytes / operations()));
+            sb.append(",\"gc\":{\"collections\":").append(gcCount)
+                    .append(",\"ms\":").append(gcMillis)
+                    .append(",\"pauseMicros\":").append(gcPauses.toJson()).append("}}");
+            return sb.toString();
+        }
+    }
+}
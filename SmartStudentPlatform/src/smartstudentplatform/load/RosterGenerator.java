@@ -0,0 +1,144 @@
+package smartstudentplatform.load;
+
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of realistic synthetic rosters for load testing.
+ *
+ * Distributions are skewed the way real rosters are: a few faculties hold
+ * most students, first and last names follow a Zipf law (so many students
+ * share names), a few courses are taken by far more students than the rest,
+ * and scores cluster around a pass mark. IDs look like COS2021000042.
+ *
+ * Student {@code i} depends only on the seed and {@code i}, so any part of a
+ * roster can be regenerated on its own and every run with the same seed sees
+ * the same data.
+ */
+public class RosterGenerator {
+    private static final String[] FACULTIES = {
+            "COS", "EEE", "MTH", "MEE", "PHY", "CVE", "CHM", "BIO", "ECO", "ACC", "ARC", "GEO"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Chinedu", "Ngozi", "John", "Mary", "Emeka", "Aisha", "David", "Fatima", "Tunde", "Grace",
+            "Ibrahim", "Blessing", "Samuel", "Chioma", "Michael", "Esther", "Uche", "Joy", "Daniel", "Amaka",
+            "Yusuf", "Ruth", "Peter", "Halima", "Kelechi", "Sarah", "Obinna", "Funmi", "Joseph", "Zainab",
+            "Ifeanyi", "Precious", "Musa", "Ada", "Victor", "Kemi", "Paul", "Nneka", "Segun", "Hauwa"
+    };
+    private static final String[] LAST_NAMES = {
+            "Okafor", "Adeyemi", "Ibrahim", "Eze", "Bello", "Okonkwo", "Smith", "Nwosu", "Abubakar", "Olawale",
+            "Mohammed", "Chukwu", "Adebayo", "Obi", "Yusuf", "Onyeka", "Balogun", "Nnamdi", "Danjuma", "Afolabi",
+            "Okeke", "Usman", "Ogunleye", "Anyanwu", "Lawal", "Uzor", "Salami", "Iwu", "Garba", "Akande",
+            "Nwachukwu", "Ojo", "Aliyu", "Ekwueme", "Oyelaran", "Nduka", "Sule", "Agu", "Fashola", "Udeh",
+            "Johnson", "Williams", "Brown", "Mbah", "Ikenna", "Ogbu", "Adamu", "Ezeh", "Olatunji", "Kalu"
+    };
+
+    private static final double[] FACULTY_CDF = zipf(FACULTIES.length, 1.1);
+
+    private final long seed;
+    private final int gradesPerStudent;
+    private final Course[] courses;
+    private final double[] firstCdf, lastCdf, courseCdf;
+
+    /**
+     * @param gradesPerStudent average number of graded courses per student (actual counts vary ±50%)
+     * @param courseCount      size of the course catalogue
+     */
+    public RosterGenerator(long seed, int gradesPerStudent, int courseCount) {
+        if (gradesPerStudent < 0 || courseCount < 1)
+            throw new IllegalArgumentException("Need gradesPerStudent >= 0 and at least one course");
+        this.seed = seed;
+        this.gradesPerStudent = Math.min(gradesPerStudent, courseCount);
+        this.courses = new Course[courseCount];
+        for (int c = 0; c < courseCount; c++) {
+            String code = FACULTIES[c % FACULTIES.length] + (101 + c / FACULTIES.length);
+            courses[c] = new Course(code, "Course " + code, 2 + c % 3);
+        }
+        this.firstCdf = zipf(FIRST_NAMES.length, 1.0);
+        this.lastCdf = zipf(LAST_NAMES.length, 1.0);
+        this.courseCdf = zipf(courseCount, 0.8);
+    }
+
+    /* -------- Students -------- */
+    /** Student number {@code i} of this seed's roster. */
+    public Student student(int i) {
+        SplittableRandom r = random(i);
+        String id = id(r, i);
+        String name = FIRST_NAMES[pick(r, firstCdf)] + " " + LAST_NAMES[pick(r, lastCdf)];
+        Student s = new Student(id, name, Math.round(cgpa(r) * 100) / 100.0);
+
+        int count = gradesPerStudent == 0 ? 0 : gradesPerStudent / 2 + r.nextInt(gradesPerStudent + 1);
+        count = Math.min(count, courses.length);
+        while (s.getGrades().size() < count) {
+            Course c = courses[pick(r, courseCdf)];
+            s.addGrade(c.getCode(), c.getName(), score(r));
+        }
+        return s;
+    }
+
+    /** Students 0 to n-1. */
+    public List<Student> students(int n) {
+        List<Student> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) list.add(student(i));
+        return list;
+    }
+
+    /** ID of student {@code i}, without generating the rest of the record. */
+    public String id(int i) {
+        return id(random(i), i);
+    }
+
+    private SplittableRandom random(int i) {
+        // mix the index into the seed (SplitMix64 finaliser) so neighbouring students are unrelated
+        long z = seed + 0x9E3779B97F4A7C15L * (i + 1L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return new SplittableRandom(z ^ (z >>> 31));
+    }
+
+    private static String id(SplittableRandom r, int i) {
+        StringBuilder sb = new StringBuilder(16);
+        sb.append(FACULTIES[pick(r, FACULTY_CDF)]).append(2015 + r.nextInt(10));
+        String serial = Integer.toString(i);
+        for (int k = serial.length(); k < 6; k++) sb.append('0');
+        return sb.append(serial).toString();
+    }
+
+    /* -------- Courses and scores -------- */
+    public int courseCount() { return courses.length; }
+
+    public Course course(int c) { return courses[c]; }
+
+    /** A course, weighted by popularity. */
+    public Course randomCourse(SplittableRandom r) { return courses[pick(r, courseCdf)]; }
+
+    /** A score out of 100 in half marks, around a mean of 62. */
+    public double score(SplittableRandom r) {
+        double v = 62 + r.nextGaussian() * 16;
+        return Math.round(Math.max(0, Math.min(100, v)) * 2) / 2.0;
+    }
+
+    private static double cgpa(SplittableRandom r) {
+        return Math.max(0, Math.min(5, 3.0 + r.nextGaussian() * 0.9));
+    }
+
+    /* -------- Skewed picks -------- */
+    /** Cumulative Zipf weights 1/(k+1)^s for k = 0..n-1, normalised to end at 1. */
+    private static double[] zipf(int n, double s) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) cdf[k] = sum += 1 / Math.pow(k + 1, s);
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        return cdf;
+    }
+
+    private static int pick(SplittableRandom r, double[] cdf) {
+        int at = Arrays.binarySearch(cdf, r.nextDouble());
+        return Math.min(at < 0 ? -at - 1 : at, cdf.length - 1);
+    }
+}
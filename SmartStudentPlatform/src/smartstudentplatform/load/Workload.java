@@ -0,0 +1,125 @@
+package smartstudentplatform.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Settings for a LoadHarness run: the synthetic roster, the concurrency, the
+ * duration and the operation mix. A workload can be written as one string,
+ *
+ *   students=200000,grades=6,courses=400,seed=42,threads=8,seconds=60,warmup=10,save=15,
+ *   mix=lookup:70/grade:20/update:5/sort:1/analytics:4
+ *
+ * where every key is optional. {@code save} is the interval in seconds
+ * between background saves (0 disables them) and the mix weights are relative.
+ */
+public class Workload {
+
+    /** What a worker does in one step. */
+    public enum Operation {
+        LOOKUP,     // getById, including some unknown IDs
+        GRADE,      // addResult
+        UPDATE,     // updateStudentCgpa
+        SORT,       // full sorted copy, rotating through the Algorithms orderings
+        ANALYTICS   // classAverage or a top performer
+    }
+
+    private int students = 100_000;
+    private int gradesPerStudent = 6;
+    private int courses = 400;
+    private long seed = 42;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int seconds = 30;
+    private int warmupSeconds = 5;
+    private int saveEverySeconds = 10;
+    private final int[] weights = {70, 20, 5, 1, 4}; // indexed by Operation.ordinal()
+
+    /** The defaults above. */
+    public Workload() {}
+
+    /** Defaults overridden by the {@code key=value,...} pairs of {@code spec}. */
+    public static Workload parse(String spec) {
+        Workload w = new Workload();
+        if (spec == null || spec.isBlank()) return w;
+        for (String pair : spec.split(",")) {
+            int eq = pair.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + pair);
+            String key = pair.substring(0, eq).trim(), value = pair.substring(eq + 1).trim();
+            switch (key) {
+                case "students": w.students = positive(key, value); break;
+                case "grades": w.gradesPerStudent = Integer.parseInt(value); break;
+                case "courses": w.courses = positive(key, value); break;
+                case "seed": w.seed = Long.parseLong(value); break;
+                case "threads": w.threads = positive(key, value); break;
+                case "seconds": w.seconds = positive(key, value); break;
+                case "warmup": w.warmupSeconds = Integer.parseInt(value); break;
+                case "save": w.saveEverySeconds = Integer.parseInt(value); break;
+                case "mix": w.parseMix(value); break;
+                default: throw new IllegalArgumentException("Unknown workload key " + key);
+            }
+        }
+        return w;
+    }
+
+    private void parseMix(String mix) {
+        Arrays.fill(weights, 0);
+        for (String part : mix.split("/")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) throw new IllegalArgumentException("Expected operation:weight, got " + part);
+            Operation op = Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT));
+            weights[op.ordinal()] = Integer.parseInt(kv[1].trim());
+            if (weights[op.ordinal()] < 0) throw new IllegalArgumentException("Negative weight for " + op);
+        }
+        if (totalWeight() == 0) throw new IllegalArgumentException("The mix needs at least one positive weight");
+    }
+
+    private static int positive(String key, String value) {
+        int n = Integer.parseInt(value);
+        if (n < 1) throw new IllegalArgumentException(key + " must be at least 1");
+        return n;
+    }
+
+    public int getStudents() { return students; }
+    public int getGradesPerStudent() { return gradesPerStudent; }
+    public int getCourses() { return courses; }
+    public long getSeed() { return seed; }
+    public int getThreads() { return threads; }
+    public int getSeconds() { return seconds; }
+    public int getWarmupSeconds() { return warmupSeconds; }
+    public int getSaveEverySeconds() { return saveEverySeconds; }
+    public int getWeight(Operation op) { return weights[op.ordinal()]; }
+
+    /** Generator for this workload's roster. */
+    public RosterGenerator generator() {
+        return new RosterGenerator(seed, gradesPerStudent, courses);
+    }
+
+    /** An operation drawn according to the mix. */
+    Operation pick(SplittableRandom r) {
+        int x = r.nextInt(totalWeight());
+        for (Operation op : Operation.values()) {
+            x -= weights[op.ordinal()];
+            if (x < 0) return op;
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private int totalWeight() {
+        int total = 0;
+        for (int w : weights) total += w;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder mix = new StringBuilder();
+        for (Operation op : Operation.values()) {
+            if (mix.length() > 0) mix.append('/');
+            mix.append(op.name().toLowerCase(Locale.ROOT)).append(':').append(weights[op.ordinal()]);
+        }
+        return "students=" + students + ",grades=" + gradesPerStudent + ",courses=" + courses
+                + ",seed=" + seed + ",threads=" + threads + ",seconds=" + seconds
+                + ",warmup=" + warmupSeconds + ",save=" + saveEverySeconds + ",mix=" + mix;
+    }
+}
@@ -3,7 +3,7 @@ package smartstudentplatform.model;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.StringJoiner;
+import smartstudentplatform.util.StudentCodec;
 
 public class Student extends Person implements Serializable {
     private double cgpa;
@@ -30,6 +30,17 @@ public class Student extends Person implements Serializable {
         this.courseNames = new HashMap<>();
     }
 
+    /**
+     * Copy constructor: a separate Student with the same ID, name, CGPA and
+     * grades, which can then be changed without affecting {@code other}.
+     */
+    public Student(Student other) {
+        super(other.getId(), other.getName());
+        this.cgpa = other.getCgpa();
+        this.grades = new HashMap<>(other.getGrades()); // getGrades() first: subclasses may load lazily
+        this.courseNames = new HashMap<>(other.courseNames);
+    }
+
     public void addGrade(String courseCode, double score) {
         grades.put(courseCode, score);
     }
@@ -40,6 +51,9 @@ public class Student extends Person implements Serializable {
     }
 
     public Map<String, Double> getGrades() { return grades; }
+
+    /** Number of graded courses (subclasses that load grades lazily may estimate this). */
+    public int gradeCount() { return getGrades().size(); }
     public double getCgpa() { return cgpa; }
     public void setCgpa(double cgpa) { this.cgpa = cgpa; }
 
@@ -52,49 +66,19 @@ public class Student extends Person implements Serializable {
         return super.display() + " | CGPA: " + String.format("%.2f", cgpa);
     }
 
-    /** Convert Student object to CSV row */
+    /** Convert Student object to CSV row (see StudentCodec for the format) */
     public String toCSV() {
-        StringJoiner gradeJoiner = new StringJoiner(";");
-        for (Map.Entry<String, Double> entry : grades.entrySet()) {
-            String code = entry.getKey();
-            double score = entry.getValue();
-            String name = getCourseName(code);
-            gradeJoiner.add(code + ":" + score + ":" + name);
-        }
-
-        return String.join(",",
-                getId(),
-                getName(),
-                String.valueOf(cgpa),
-                gradeJoiner.toString()
-        );
+        return StudentCodec.shared().toCSV(this);
     }
 
     /** Create a Student object from a CSV row */
     public static Student fromCSV(String csvLine) {
-        String[] parts = csvLine.split(",", -1);
-        if (parts.length < 3) {
-            throw new IllegalArgumentException("Invalid CSV line: " + csvLine);
-        }
-
-        String id = parts[0];
-        String name = parts[1];
-        double cgpa = Double.parseDouble(parts[2]);
-
-        Student student = new Student(id, name, cgpa);
+        return StudentCodec.shared().fromCSV(csvLine);
+    }
 
-        if (parts.length > 3 && !parts[3].isEmpty()) {
-            String[] gradeTokens = parts[3].split(";");
-            for (String token : gradeTokens) {
-                String[] kv = token.split(":");
-                if (kv.length >= 2) {
-                    String courseCode = kv[0];
-                    double score = Double.parseDouble(kv[1]);
-                    String courseName = kv.length == 3 ? kv[2] : "Unknown Course";
-                    student.addGrade(courseCode, courseName, score);
-                }
-            }
-        }
-        return student;
+    /** Add every grade from a "code:score:name;..." field as written by toCSV(), once a CSV reader has unquoted it */
+    public void addGrades(String gradesField) {
+        if (gradesField == null || gradesField.isEmpty()) return;
+        StudentCodec.shared().decodeGrades(this, gradesField);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,256 @@
+package smartstudentplatform.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import smartstudentplatform.core.RosterSnapshot;
+import smartstudentplatform.util.Json;
+import smartstudentplatform.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Embedded read-only HTTP/JSON query service over roster snapshots.
+ *
+ * Requests are served on virtual threads from the latest RosterSnapshot handed
+ * to {@link #publish(RosterSnapshot)}; the owner of the StudentManager keeps
+ * mutating it freely and publishes a new snapshot when it changes, so request
+ * load never blocks the UI. A snapshot may also be published on demand
+ * ({@link #publish(Supplier)}, e.g. StudentManager.snapshotOnDemand()): it is
+ * then built by the first request that needs it, so an owner publishing on
+ * every change pays nothing while nobody is asking. Responses are cached per
+ * snapshot, and every endpoint keeps a latency histogram, served at /metrics.
+ *
+ * There is no authentication, so by default the server only listens on the
+ * loopback interface; binding a wider address is an explicit choice.
+ *
+ * Endpoints (GET):
+ *   /students/{id}              one student with grades
+ *   /search?name=TEXT[&limit=N] name contains TEXT, case-insensitive
+ *   /average?course=CODE        class average for a course
+ *   /top?k=N                    N highest CGPAs
+ *   /metrics                    latency per endpoint, in microseconds
+ */
+public class QueryServer {
+    private static final int MAX_CACHED_RESPONSES = 10_000;
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 1_000;
+
+    /** A snapshot, built on first use, together with the responses already computed from it. */
+    private static final class Published {
+        private Supplier<RosterSnapshot> source;   // null once built
+        private volatile RosterSnapshot snapshot;
+        final Map<String, Response> cache = new ConcurrentHashMap<>();
+
+        Published(Supplier<RosterSnapshot> source) { this.source = source; }
+
+        RosterSnapshot snapshot() {
+            RosterSnapshot s = snapshot;
+            if (s != null) return s;
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = source.get();
+                    source = null;
+                }
+                return snapshot;
+            }
+        }
+    }
+
+    private static final class Response {
+        final int status;
+        final byte[] body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, LatencyHistogram> latency = new ConcurrentHashMap<>();
+    private volatile Published current;
+
+    public QueryServer(int port, RosterSnapshot initial) throws IOException {
+        this(port, () -> initial);
+    }
+
+    /** Listens on {@code port} of the loopback interface, so only this machine can query. */
+    public QueryServer(int port, Supplier<RosterSnapshot> initial) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), initial);
+    }
+
+    /** Listens on {@code address}, e.g. all interfaces; anyone who can reach it can read the roster. */
+    public QueryServer(InetSocketAddress address, Supplier<RosterSnapshot> initial) throws IOException {
+        this.current = new Published(initial);
+        this.server = HttpServer.create(address, 1024); // deep accept backlog for bursts
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() { server.start(); }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public int getPort() { return server.getAddress().getPort(); }
+
+    public InetSocketAddress getAddress() { return server.getAddress(); }
+
+    /** Makes {@code snapshot} the one new requests read; its cache starts empty. */
+    public void publish(RosterSnapshot snapshot) {
+        current = new Published(() -> snapshot);
+    }
+
+    /** Same, with the snapshot built by the first request that reads it. */
+    public void publish(Supplier<RosterSnapshot> snapshot) {
+        current = new Published(snapshot);
+    }
+
+    /* -------- Request handling -------- */
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        URI uri = exchange.getRequestURI();
+        String endpoint = endpointOf(uri.getPath());
+        try {
+            Response response;
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                response = error(405, "Only GET is supported");
+            } else if (endpoint.equals("/metrics")) {
+                response = new Response(200, metrics()); // never cached
+            } else {
+                Published p = current;
+                String key = uri.getRawPath() + '?' + uri.getRawQuery();
+                response = p.cache.get(key);
+                if (response == null) {
+                    response = answer(p.snapshot(), endpoint, uri);
+                    if (p.cache.size() >= MAX_CACHED_RESPONSES) p.cache.clear();
+                    p.cache.put(key, response);
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(response.status, response.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body);
+            }
+        } finally {
+            exchange.close();
+            latency.computeIfAbsent(endpoint, e -> new LatencyHistogram()).record(System.nanoTime() - start);
+        }
+    }
+
+    private static String endpointOf(String path) {
+        if (path.startsWith("/students/")) return "/students";
+        switch (path) {
+            case "/search": case "/average": case "/top": case "/metrics":
+                return path;
+            default:
+                return "other";
+        }
+    }
+
+    private Response answer(RosterSnapshot snapshot, String endpoint, URI uri) {
+        Map<String, String> params = params(uri.getRawQuery());
+        try {
+            switch (endpoint) {
+                case "/students": {
+                    String id = URLDecoder.decode(uri.getRawPath().substring("/students/".length()), StandardCharsets.UTF_8);
+                    RosterSnapshot.Entry e = snapshot.get(id);
+                    return e == null ? error(404, "No student with ID " + id) : new Response(200, studentJson(e, true));
+                }
+                case "/search": {
+                    String name = params.get("name");
+                    if (name == null || name.isEmpty()) return error(400, "Missing name parameter");
+                    return new Response(200, listJson(snapshot.searchByName(name, limit(params.get("limit")))));
+                }
+                case "/average": {
+                    String course = params.get("course");
+                    if (course == null) return error(400, "Missing course parameter");
+                    double[] totals = snapshot.courseTotals(course);
+                    if (totals == null) return error(404, "No scores for course " + course);
+                    return new Response(200, "{\"course\":" + Json.quote(course)
+                            + ",\"average\":" + Json.number(totals[0] / totals[1])
+                            + ",\"count\":" + (long) totals[1] + "}");
+                }
+                case "/top":
+                    return new Response(200, listJson(snapshot.top(limit(params.get("k")))));
+                default:
+                    return error(404, "Unknown endpoint " + uri.getPath());
+            }
+        } catch (IllegalArgumentException e) {
+            return error(400, e.getMessage());
+        }
+    }
+
+    private String metrics() {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, LatencyHistogram> e : new TreeMap<>(latency).entrySet()) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(Json.quote(e.getKey())).append(':').append(e.getValue().toJson());
+        }
+        return sb.append('}').toString();
+    }
+
+    /* -------- Helpers -------- */
+    private static int limit(String value) {
+        if (value == null) return DEFAULT_LIMIT;
+        int n = Integer.parseInt(value); // NumberFormatException is an IllegalArgumentException -> 400
+        if (n < 1) throw new IllegalArgumentException("Limit must be positive");
+        return Math.min(n, MAX_LIMIT);
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(key, value);
+        }
+        return params;
+    }
+
+    private static Response error(int status, String message) {
+        return new Response(status, "{\"error\":" + Json.quote(message) + "}");
+    }
+
+    private static String listJson(List<RosterSnapshot.Entry> entries) {
+        StringBuilder sb = new StringBuilder("[");
+        for (RosterSnapshot.Entry e : entries) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(studentJson(e, false));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String studentJson(RosterSnapshot.Entry e, boolean withGrades) {
+        StringBuilder sb = new StringBuilder("{\"id\":").append(Json.quote(e.getId()))
+                .append(",\"name\":").append(Json.quote(e.getName()))
+                .append(",\"cgpa\":").append(Json.number(e.getCgpa()));
+        if (withGrades) {
+            sb.append(",\"grades\":{");
+            boolean first = true;
+            for (Map.Entry<String, Double> g : new TreeMap<>(e.getGrades()).entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                sb.append(Json.quote(g.getKey())).append(':').append(Json.number(g.getValue()));
+            }
+            sb.append('}');
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,227 @@
+package smartstudentplatform.ui;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects stalls of the Swing event dispatch thread and records what caused them.
+ *
+ * A monitor thread posts a heartbeat to the event queue every HEARTBEAT_MS
+ * and measures how long it takes to be dispatched. Once a heartbeat has
+ * waited longer than the threshold, the EDT is stalled: the monitor samples
+ * its stack every SAMPLE_MS until the heartbeat runs. Each stall is then
+ * written to a rolling log and committed as a JFR event
+ * ({@code smartstudentplatform.EdtStall}) with
+ *   handler    the outermost application frame, usually the MainFrame
+ *              listener that the event queue called
+ *   hot frame  the innermost application frame, where the time went
+ * taken from the most common sample, plus the stall's duration.
+ *
+ * The monitor only reads the EDT's stack; it never runs work on the EDT
+ * beyond the heartbeats themselves.
+ */
+public class EdtMonitor implements AutoCloseable {
+    private static final long HEARTBEAT_MS = 100;
+    private static final long SAMPLE_MS = 20;
+    private static final int MAX_SAMPLES = 1_000;           // 20 s of samples; longer stalls keep the first
+    private static final long MAX_LOG_BYTES = 1 << 20;      // then the log rolls over to <log>.1
+    private static final int LOGGED_FRAMES = 25;
+    private static final String APP_PACKAGE = "smartstudentplatform.";
+
+    private final long thresholdMillis;
+    private final Path logFile;
+    private volatile boolean running;
+    private volatile Thread edt;                            // learnt from the first heartbeat
+    private Thread thread;
+    private volatile long lastLatencyMillis, maxLatencyMillis, stalls;
+
+    /** JFR event for one stall; see the class comment. */
+    @Name("smartstudentplatform.EdtStall")
+    @Label("EDT Stall")
+    @Category({"SmartStudentPlatform", "UI"})
+    @Description("The Swing event dispatch thread did not process events for longer than the threshold")
+    @StackTrace(false) // the monitor thread's own stack says nothing; the EDT's is in the fields
+    static final class EdtStallEvent extends Event {
+        @Label("Handler")
+        String handler;
+
+        @Label("Hot Frame")
+        String hotFrame;
+
+        @Label("Stall")
+        @Timespan(Timespan.MILLISECONDS)
+        long stallMillis;
+
+        @Label("Samples")
+        int samples;
+    }
+
+    /**
+     * @param thresholdMillis dispatch delay that counts as a stall
+     * @param logFile         rolling log of stalls, or null for JFR events only; its folder
+     *                        is created with the first stall
+     */
+    public EdtMonitor(long thresholdMillis, Path logFile) {
+        if (thresholdMillis < 1) throw new IllegalArgumentException("Threshold must be at least 1 ms");
+        this.thresholdMillis = thresholdMillis;
+        this.logFile = logFile;
+    }
+
+    /** Dispatch delay of the last heartbeat. */
+    public long getLastLatencyMillis() { return lastLatencyMillis; }
+
+    public long getMaxLatencyMillis() { return maxLatencyMillis; }
+
+    public long getStallCount() { return stalls; }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this::monitorLoop, "edt-monitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) thread.interrupt();
+    }
+
+    /* -------- Heartbeats -------- */
+    private void monitorLoop() {
+        try {
+            while (running) {
+                heartbeat();
+                Thread.sleep(HEARTBEAT_MS);
+            }
+        } catch (InterruptedException e) {
+            // stopped
+        }
+    }
+
+    private void heartbeat() throws InterruptedException {
+        CountDownLatch dispatched = new CountDownLatch(1);
+        long posted = System.nanoTime();
+        Instant postedAt = Instant.now();
+        EventQueue.invokeLater(() -> {
+            edt = Thread.currentThread();
+            dispatched.countDown();
+        });
+
+        List<StackTraceElement[]> samples = null;
+        EdtStallEvent event = null;
+        while (!dispatched.await(SAMPLE_MS, TimeUnit.MILLISECONDS)) {
+            if (!running) return;
+            if (samples == null) {
+                if (elapsedMillis(posted) < thresholdMillis) continue;
+                samples = new ArrayList<>();
+                event = new EdtStallEvent();
+                event.begin();
+            }
+            Thread t = edt;
+            if (t != null && samples.size() < MAX_SAMPLES) samples.add(t.getStackTrace());
+        }
+
+        long latency = elapsedMillis(posted);
+        lastLatencyMillis = latency;
+        if (latency > maxLatencyMillis) maxLatencyMillis = latency;
+        if (samples != null) record(postedAt, latency, samples, event);
+    }
+
+    private static long elapsedMillis(long sinceNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sinceNanos);
+    }
+
+    /* -------- Reporting -------- */
+    private void record(Instant start, long millis, List<StackTraceElement[]> samples, EdtStallEvent event) {
+        stalls++;
+        StackTraceElement[] typical = mostCommon(samples);
+        event.end();
+        event.handler = describe(outermostAppFrame(typical), typical);
+        event.hotFrame = describe(innermostAppFrame(typical), typical);
+        event.stallMillis = millis;
+        event.samples = samples.size();
+        event.commit();
+
+        if (logFile != null) {
+            try {
+                appendToLog(start, event, typical);
+            } catch (IOException e) {
+                System.err.println("Could not write EDT stall log: " + e.getMessage());
+            }
+        }
+    }
+
+    /** The stack seen most often, comparing application frames only (line numbers move while code runs). */
+    private static StackTraceElement[] mostCommon(List<StackTraceElement[]> samples) {
+        Map<String, Integer> counts = new HashMap<>();
+        StackTraceElement[] best = samples.isEmpty() ? new StackTraceElement[0] : samples.get(0);
+        int bestCount = 0;
+        for (StackTraceElement[] stack : samples) {
+            StringBuilder key = new StringBuilder();
+            for (StackTraceElement f : stack) {
+                if (f.getClassName().startsWith(APP_PACKAGE)) {
+                    key.append(f.getClassName()).append('.').append(f.getMethodName()).append('/');
+                }
+            }
+            if (key.length() == 0 && stack.length > 0) key.append(stack[0]); // only library frames
+            int c = counts.merge(key.toString(), 1, Integer::sum);
+            if (c > bestCount) {
+                bestCount = c;
+                best = stack;
+            }
+        }
+        return best;
+    }
+
+    private static int outermostAppFrame(StackTraceElement[] stack) {
+        for (int i = stack.length - 1; i >= 0; i--) if (stack[i].getClassName().startsWith(APP_PACKAGE)) return i;
+        return -1;
+    }
+
+    private static int innermostAppFrame(StackTraceElement[] stack) {
+        for (int i = 0; i < stack.length; i++) if (stack[i].getClassName().startsWith(APP_PACKAGE)) return i;
+        return -1;
+    }
+
+    /** The frame at {@code i}, or the top of the stack when no application frame was found. */
+    private static String describe(int i, StackTraceElement[] stack) {
+        if (stack.length == 0) return "unknown";
+        StackTraceElement f = stack[i >= 0 ? i : 0];
+        String cls = f.getClassName();
+        return cls.substring(cls.lastIndexOf('.') + 1) + "." + f.getMethodName()
+                + (f.getLineNumber() > 0 ? ":" + f.getLineNumber() : "");
+    }
+
+    private void appendToLog(Instant start, EdtStallEvent stall, StackTraceElement[] typical) throws IOException {
+        Path folder = logFile.toAbsolutePath().getParent();
+        if (folder != null) Files.createDirectories(folder);
+        if (Files.exists(logFile) && Files.size(logFile) > MAX_LOG_BYTES) {
+            Files.move(logFile, logFile.resolveSibling(logFile.getFileName() + ".1"),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (Writer w = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(start + " EDT stalled " + stall.stallMillis + " ms in " + stall.handler
+                    + " (hot: " + stall.hotFrame + ", " + stall.samples + " samples)\n");
+            for (int i = 0; i < typical.length && i < LOGGED_FRAMES; i++) w.write("    at " + typical[i] + "\n");
+            if (typical.length > LOGGED_FRAMES) w.write("    ... " + (typical.length - LOGGED_FRAMES) + " more\n");
+        }
+    }
+}
@@ -1,20 +1,29 @@
 package smartstudentplatform.ui;
 
+import smartstudentplatform.core.DuplicatePolicy;
 import smartstudentplatform.core.StudentManager;
 import smartstudentplatform.model.Course;
 import smartstudentplatform.model.Student;
+import smartstudentplatform.server.QueryServer;
 import smartstudentplatform.util.FileManager;
+import smartstudentplatform.util.FolderIngestor;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.io.File;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 
-public class MainFrame extends JFrame {
-    private final StudentManager manager = new StudentManager();
+public final class MainFrame extends JFrame {
+    private final StudentManager manager = new StudentManager(true); // versioned, for undo/redo
+
+    // Embedded query server, null while stopped
+    private transient QueryServer queryServer;
+
+    // Watch-folder ingestion, null while stopped; its checkpoint advances when the roster is saved
+    private transient FolderIngestor folderIngestor;
 
     // Student form fields
     private final JTextField idField = new JTextField(12);
@@ -25,10 +34,7 @@ public class MainFrame extends JFrame {
     private final JTextField searchIdField = new JTextField(12);
 
     // Table
-    private final DefaultTableModel tableModel = new DefaultTableModel(
-            new String[]{"Student ID", "Name", "CGPA", "Course Code", "Score"}, 0) {
-        @Override public boolean isCellEditable(int r, int c) { return false; }
-    };
+    private final RosterTableModel tableModel = new RosterTableModel();
     private final JTable table = new JTable(tableModel);
 
     // Summary area
@@ -234,19 +240,22 @@ public class MainFrame extends JFrame {
     }
 
     private JPanel createAnalyticsPanel() {
-        JPanel panel = new JPanel(new GridLayout(2, 1, 5, 5));
+        JPanel panel = new JPanel(new GridLayout(3, 1, 5, 5));
         panel.setBorder(BorderFactory.createTitledBorder(
                 BorderFactory.createEtchedBorder(), "Analytics",
                 0, 0, new Font("SansSerif", Font.BOLD, 12)));
 
         JButton classAvgBtn = createStyledButton("Class Average", new Color(255, 165, 0));
         JButton topPerformerBtn = createStyledButton("Top Performer", new Color(255, 165, 0));
+        JButton similarBtn = createStyledButton("Similar Students", new Color(255, 165, 0));
 
         classAvgBtn.addActionListener(this::onClassAverage);
         topPerformerBtn.addActionListener(this::onTopPerformer);
+        similarBtn.addActionListener(this::onSimilarStudents);
 
         panel.add(classAvgBtn);
         panel.add(topPerformerBtn);
+        panel.add(similarBtn);
 
         return panel;
     }
@@ -300,19 +309,177 @@ public class MainFrame extends JFrame {
         exitItem.setAccelerator(KeyStroke.getKeyStroke("ctrl Q"));
         exitItem.addActionListener(e -> System.exit(0));
 
+        JMenuItem importItem = new JMenuItem("Import Department Files...");
+        importItem.addActionListener(this::onImportFiles);
+
+        JMenuItem watchItem = new JMenuItem("Watch Folder...");
+        watchItem.addActionListener(this::onWatchFolder);
+
+        JMenuItem stopWatchItem = new JMenuItem("Stop Watching");
+        stopWatchItem.addActionListener(this::onStopWatching);
+
         fileMenu.add(saveAllItem);
         fileMenu.add(loadAllItem);
+        fileMenu.add(importItem);
+        fileMenu.addSeparator();
+        fileMenu.add(watchItem);
+        fileMenu.add(stopWatchItem);
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
 
+        JMenu editMenu = new JMenu("Edit");
+        editMenu.setMnemonic('E');
+
+        JMenuItem undoItem = new JMenuItem("Undo");
+        undoItem.setAccelerator(KeyStroke.getKeyStroke("ctrl Z"));
+        undoItem.addActionListener(e -> onUndoRedo(true));
+
+        JMenuItem redoItem = new JMenuItem("Redo");
+        redoItem.setAccelerator(KeyStroke.getKeyStroke("ctrl Y"));
+        redoItem.addActionListener(e -> onUndoRedo(false));
+
+        editMenu.add(undoItem);
+        editMenu.add(redoItem);
+
+        JMenu serverMenu = new JMenu("Server");
+        serverMenu.setMnemonic('R');
+
+        JMenuItem startServerItem = new JMenuItem("Start Query Server...");
+        startServerItem.addActionListener(this::onStartServer);
+
+        JMenuItem stopServerItem = new JMenuItem("Stop Query Server");
+        stopServerItem.addActionListener(this::onStopServer);
+
+        serverMenu.add(startServerItem);
+        serverMenu.add(stopServerItem);
+
         menuBar.add(fileMenu);
+        menuBar.add(editMenu);
+        menuBar.add(serverMenu);
         return menuBar;
     }
 
+    private void onUndoRedo(boolean undo) {
+        if (!(undo ? manager.undo() : manager.redo())) {
+            updateStatus(undo ? "Nothing to undo" : "Nothing to redo");
+            return;
+        }
+        refreshTable();
+        updateSummary(undo ? "↶ Undid last change" : "↷ Redid change");
+    }
+
+    private void onStartServer(ActionEvent e) {
+        if (queryServer != null) {
+            info("Query server already running on port " + queryServer.getPort());
+            return;
+        }
+        String port = JOptionPane.showInputDialog(this, "Port:", "8080");
+        if (port == null || port.trim().isEmpty()) return;
+        try {
+            queryServer = new QueryServer(Integer.parseInt(port.trim()), manager.snapshotOnDemand());
+            queryServer.start();
+            updateStatus("Query server started on port " + queryServer.getPort());
+            updateSummary("✓ Query server listening on port " + queryServer.getPort() + " (this computer only)");
+        } catch (NumberFormatException ex) {
+            error("Port must be a number.");
+        } catch (Exception ex) {
+            queryServer = null;
+            error("Could not start server: " + ex.getMessage());
+            updateStatus("Server start failed");
+        }
+    }
+
+    private void onStopServer(ActionEvent e) {
+        if (queryServer == null) return;
+        queryServer.stop();
+        queryServer = null;
+        updateStatus("Query server stopped");
+        updateSummary("✗ Query server stopped");
+    }
+
+    /** Loads several department exports into one roster; the most recently modified file wins conflicts. */
+    private void onImportFiles(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Department Files");
+        chooser.setMultiSelectionEnabled(true);
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("CSV Data Files (*.csv)", "csv"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        Object[] rules = {"Latest wins", "Union of grades"};
+        int rule = JOptionPane.showOptionDialog(this, "When a student appears in several files:", "Merge Rule",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, rules, rules[0]);
+        if (rule < 0) return;
+
+        java.util.List<File> files = new java.util.ArrayList<>(java.util.Arrays.asList(chooser.getSelectedFiles()));
+        files.sort(java.util.Comparator.comparingLong(File::lastModified)); // later files win
+        DuplicatePolicy policy = rule == 0 ? DuplicatePolicy.REPLACE : DuplicatePolicy.MERGE;
+        updateStatus("Importing " + files.size() + " files...");
+        // parse and stage off the EDT; the swap and the table refresh happen back on it in done()
+        new SwingWorker<StudentManager.Staging, Void>() {
+            @Override
+            protected StudentManager.Staging doInBackground() throws Exception {
+                return FileManager.stageAll(manager, files, policy);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    StudentManager.Staging staging = get();
+                    staging.swapIn();
+                    refreshTable();
+                    updateStatus("Imported " + files.size() + " files");
+                    updateSummary("✓ Imported " + manager.size() + " students from " + files.size() + " files ("
+                            + staging.getDuplicates() + " repeated rows combined)");
+                } catch (InterruptedException | ExecutionException ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    error("Import failed: " + cause.getMessage());
+                    updateStatus("Import failed");
+                }
+            }
+        }.execute();
+    }
+
+    /** Ingests rows appended to the folder's CSV files as they arrive, applying them on the EDT. */
+    private void onWatchFolder(ActionEvent e) {
+        if (folderIngestor != null) {
+            info("Already watching " + folderIngestor.getFolder());
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Watch Folder for CSV Data");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            folderIngestor = new FolderIngestor(chooser.getSelectedFile().toPath(), manager,
+                    r -> SwingUtilities.invokeLater(() -> {
+                        r.run();
+                        refreshTable();
+                    }));
+            folderIngestor.start();
+            updateStatus("Watching " + folderIngestor.getFolder());
+            updateSummary("✓ Watching " + folderIngestor.getFolder().getFileName() + " for new CSV rows");
+        } catch (Exception ex) {
+            folderIngestor = null;
+            error("Could not watch folder: " + ex.getMessage());
+            updateStatus("Watch failed");
+        }
+    }
+
+    private void onStopWatching(ActionEvent e) {
+        if (folderIngestor == null) return;
+        folderIngestor.close();
+        updateSummary("✗ Stopped watching (" + folderIngestor.getAppliedRows() + " rows ingested, "
+                + folderIngestor.getRejectedRows() + " rejected, " + folderIngestor.getWaitingRows()
+                + " waiting for their student); rows since the last save will be ingested again");
+        folderIngestor = null;
+        updateStatus("Folder watch stopped");
+    }
+
     private void onSaveAll(ActionEvent e) {
         chooseAndDo("Save All Application Data", true, f -> {
             try {
                 FileManager.saveAllData(manager, f);
+                if (folderIngestor != null) folderIngestor.commitCheckpoint(); // ingested rows are on disk now
                 updateStatus("All data saved to " + f.getName());
                 updateSummary("✓ Saved all data to " + f.getName());
             } catch (Exception ex) {
@@ -325,7 +492,7 @@ public class MainFrame extends JFrame {
     private void onLoadAll(ActionEvent e) {
         chooseAndDo("Load All Application Data", false, f -> {
             try {
-                FileManager.loadAllData(manager, f);
+                FileManager.loadAllData(manager, f, true); // grades are parsed as rows are shown
                 refreshTable();
                 updateStatus("All data loaded from " + f.getName());
                 updateSummary("✓ Loaded all data from " + f.getName());
@@ -525,35 +692,32 @@ public class MainFrame extends JFrame {
         }
     }
 
-    /* ---------- Helper methods ---------- */
-    private void refreshTable() {
-        tableModel.setRowCount(0);
-        int studentCount = 0;
-
-        for (Student s : manager.getAll()) {
-            studentCount++;
-            if (s.getGrades().isEmpty()) {
-                tableModel.addRow(new Object[]{
-                        s.getId(),
-                        s.getName(),
-                        String.format("%.2f", s.getCgpa()),
-                        "-",
-                        "-"
-                });
-            } else {
-                s.getGrades().forEach((courseCode, score) -> {
-                    tableModel.addRow(new Object[]{
-                            s.getId(),
-                            s.getName(),
-                            String.format("%.2f", s.getCgpa()),
-                            courseCode,
-                            String.format("%.1f", score)
-                    });
-                });
+    private void onSimilarStudents(ActionEvent e) {
+        String id = JOptionPane.showInputDialog(this, "Enter Student ID:", "Similar Students", JOptionPane.QUESTION_MESSAGE);
+        if (id == null || id.trim().isEmpty()) return;
+
+        try {
+            java.util.List<Student> peers = manager.similarStudents(id.trim(), 5);
+            if (peers.isEmpty()) {
+                info("No students with a similar grade profile (does " + id.trim() + " have any results?)");
+                return;
             }
+            StringBuilder message = new StringBuilder("Students with a grade profile similar to " + id.trim() + ":");
+            for (Student peer : peers) message.append("\n  ").append(peer.display());
+            info(message.toString());
+            updateSummary("🤝 " + peers.size() + " peers found for " + id.trim());
+            updateStatus("Similar students found");
+        } catch (Exception ex) {
+            error(ex.getMessage());
+            updateStatus("Peer search failed");
         }
+    }
 
-        updateStatus("Displaying " + studentCount + " students with " + tableModel.getRowCount() + " total records");
+    /* ---------- Helper methods ---------- */
+    private void refreshTable() {
+        tableModel.setStudents(manager.getAll());
+        if (queryServer != null) queryServer.publish(manager.snapshotOnDemand()); // O(1): built when a request needs it
+        updateStatus("Displaying " + tableModel.getStudentCount() + " students with " + tableModel.getRowCount() + " total records");
     }
 
     private void clearInputs() {
@@ -0,0 +1,77 @@
+package smartstudentplatform.ui;
+
+import smartstudentplatform.model.Student;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One row per (student, course) pair, or a single "-" row for a student without grades.
+ * Cells are produced on demand, so only the rows the table paints are formatted and
+ * lazily loaded students only have their grades parsed once scrolled into view.
+ */
+class RosterTableModel extends AbstractTableModel {
+    private static final long serialVersionUID = 1L;
+    private static final String[] COLUMNS = {"Student ID", "Name", "CGPA", "Course Code", "Score"};
+
+    private transient List<Student> students = new ArrayList<>();
+    private int[] firstRow = {0};     // firstRow[i] = table row of student i, last entry = row count
+
+    // grades of the student painted last, since a row is asked for one column at a time
+    private int cachedIndex = -1;
+    private transient List<Map.Entry<String, Double>> cachedGrades;
+
+    void setStudents(List<Student> students) {
+        this.students = students;
+        rebuild();
+    }
+
+    private void rebuild() {
+        int n = students.size();
+        int[] first = new int[n + 1];
+        for (int i = 0; i < n; i++) first[i + 1] = first[i] + Math.max(1, students.get(i).gradeCount());
+        firstRow = first;
+        cachedIndex = -1;
+        fireTableDataChanged();
+    }
+
+    int getStudentCount() { return firstRow.length - 1; }
+
+    @Override public int getRowCount() { return firstRow[firstRow.length - 1]; }
+    @Override public int getColumnCount() { return COLUMNS.length; }
+    @Override public String getColumnName(int column) { return COLUMNS[column]; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int i = Arrays.binarySearch(firstRow, row);
+        if (i < 0) i = -i - 2;                      // row falls inside student i's block
+        Student s = students.get(i);
+
+        switch (column) {
+            case 0: return s.getId();
+            case 1: return s.getName();
+            case 2: return String.format("%.2f", s.getCgpa());
+            default:
+                List<Map.Entry<String, Double>> grades = gradesOf(i, s);
+                int k = row - firstRow[i];
+                if (k >= grades.size()) return "-";
+                return column == 3 ? grades.get(k).getKey() : String.format("%.1f", grades.get(k).getValue());
+        }
+    }
+
+    private List<Map.Entry<String, Double>> gradesOf(int i, Student s) {
+        if (i != cachedIndex) {
+            cachedGrades = new ArrayList<>(s.getGrades().entrySet());
+            cachedIndex = i;
+            // a lazily loaded student may have had its row count estimated; fix the layout if it was off
+            if (Math.max(1, cachedGrades.size()) != firstRow[i + 1] - firstRow[i]) {
+                SwingUtilities.invokeLater(this::rebuild);
+            }
+        }
+        return cachedGrades;
+    }
+}
@@ -1,11 +1,20 @@
 package smartstudentplatform.util;
 
+import java.util.Comparator;
 import java.util.List;
 import smartstudentplatform.model.Student;
 
 public final class Algorithms {
     private Algorithms() {}
 
+    /* ---------- ORDERINGS (same as the sorts below, for merges and library sorts) ---------- */
+    public static final Comparator<Student> BY_NAME =
+            Comparator.comparing(s -> s.getName().toLowerCase());
+    public static final Comparator<Student> BY_CGPA_DESC =
+            Comparator.comparingDouble(Student::getCgpa).reversed();
+    public static final Comparator<Student> BY_ID =
+            (a, b) -> a.getId().compareToIgnoreCase(b.getId());
+
     /* ---------- LINEAR SEARCH by ID ---------- */
     public static Student linearSearchById(List<Student> arr, String id) {
         for (Student s : arr) {
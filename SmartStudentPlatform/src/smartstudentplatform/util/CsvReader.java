@@ -0,0 +1,119 @@
+package smartstudentplatform.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming RFC 4180 CSV reader.
+ * Records are read one at a time straight from the underlying Reader, so memory
+ * use is bounded by the longest record rather than by the size of the file.
+ * Quoted fields may contain commas, doubled quotes ("") and line breaks.
+ */
+public class CsvReader implements Closeable {
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final char[] buf = new char[8192];
+    private int pos, limit;
+
+    private final StringBuilder field = new StringBuilder();
+    private final List<String> record = new ArrayList<>();
+    private long line = 1;        // line the reader is currently on
+    private long recordLine = 1;  // line the last returned record started on
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Reads the next record.
+     * The returned list is reused by the following call, copy it if it must be kept.
+     * @return the fields of the record, or null at end of input
+     */
+    public List<String> next() throws IOException {
+        int c = read();
+        if (c == EOF) return null;
+
+        record.clear();
+        recordLine = line;
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                c = readQuoted();
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != EOF) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            record.add(field.toString());
+
+            if (c == ',') { c = read(); continue; }
+            if (c == '\r' && peek() == '\n') read();
+            return record;
+        }
+    }
+
+    /** Line number (1-based) on which the last returned record started. */
+    public long getLineNumber() { return recordLine; }
+
+    /** Reads a quoted field body and returns the character following the closing quote. */
+    private int readQuoted() throws IOException {
+        long start = line;
+        while (true) {
+            int c = read();
+            if (c == EOF) throw new IOException("Unterminated quoted field starting on line " + start);
+            if (c == '"') {
+                int next = read();
+                if (next != '"') {
+                    if (next != ',' && next != '\r' && next != '\n' && next != EOF) {
+                        throw new IOException("Unexpected character after closing quote on line " + line);
+                    }
+                    return next;
+                }
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) return EOF;
+        char c = buf[pos++];
+        // a lone CR or the LF of a CRLF pair ends a physical line
+        if (c == '\n' || (c == '\r' && peek() != '\n')) line++;
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) return EOF;
+        return buf[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n <= 0) return false;
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /** Quotes a value for writing if it contains a comma, quote or line break. */
+    public static String escape(String value) {
+        if (value == null) return "";
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') { needsQuotes = true; break; }
+        }
+        if (!needsQuotes) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
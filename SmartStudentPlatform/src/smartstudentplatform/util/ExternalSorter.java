@@ -0,0 +1,282 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts a roster file written by FileManager.saveAllData() without loading it.
+ *
+ * The input is read in runs that fit a memory budget; each run is sorted with
+ * Arrays.parallelSort and spilled to a temporary file, then the runs are
+ * merged with a heap into the output (in several passes if there are more
+ * than MAX_FAN_IN runs). Rows are copied byte for byte: only ID, name and
+ * CGPA are decoded, to compare them with one of the Algorithms orderings.
+ * The sort is stable, so rows that compare equal keep their input order.
+ */
+public final class ExternalSorter {
+    private static final int MAX_FAN_IN = 64;               // runs merged at once
+    private static final int ROW_OVERHEAD = 256;            // heap bytes per buffered row besides its text
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ExternalSorter() {}
+
+    /** A row's bytes (without line terminator) and the fields it is ordered by. */
+    private static final class Row {
+        final Student key;
+        final byte[] bytes;
+
+        Row(Student key, byte[] bytes) {
+            this.key = key;
+            this.bytes = bytes;
+        }
+    }
+
+    /** Sorts with a budget of a quarter of the maximum heap, spilling next to the output. */
+    public static long sort(File in, File out, Comparator<Student> order) throws IOException {
+        return sort(in, out, order, Runtime.getRuntime().maxMemory() / 4, out.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Writes the rows of {@code in} to {@code out} in {@code order}.
+     *
+     * @param runBytes heap to spend on one in-memory run
+     * @param tempDir  where runs are spilled; they are deleted before returning
+     * @return the number of rows written (malformed rows are reported and dropped)
+     */
+    public static long sort(File in, File out, Comparator<Student> order, long runBytes, File tempDir) throws IOException {
+        List<File> runs = new ArrayList<>();
+        try {
+            long rows = 0;
+            try (RowReader reader = new RowReader(in, true)) {
+                List<Row> run = new ArrayList<>();
+                long used = 0;
+                for (Row row; (row = reader.next(order)) != null; ) {
+                    run.add(row);
+                    used += row.bytes.length + ROW_OVERHEAD;
+                    if (used >= runBytes) {
+                        runs.add(spill(run, order, tempDir));
+                        rows += run.size();
+                        run.clear();
+                        used = 0;
+                    }
+                }
+                rows += run.size();
+                if (runs.isEmpty()) {                 // everything fit: no temp files at all
+                    sortRun(run, order);
+                    write(run, out);
+                    return rows;
+                }
+                if (!run.isEmpty()) runs.add(spill(run, order, tempDir));
+            }
+
+            // merge MAX_FAN_IN runs at a time until one pass can produce the output
+            while (runs.size() > MAX_FAN_IN) {
+                List<File> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                    List<File> group = runs.subList(i, Math.min(i + MAX_FAN_IN, runs.size()));
+                    File f = tempFile(tempDir);
+                    merged.add(f);
+                    merge(group, f, order, false);
+                    for (File g : group) Files.deleteIfExists(g.toPath());
+                }
+                runs = merged;
+            }
+            merge(runs, out, order, true);
+            return rows;
+        } finally {
+            for (File f : runs) Files.deleteIfExists(f.toPath());
+        }
+    }
+
+    /* ---------- Runs ---------- */
+
+    private static void sortRun(List<Row> run, Comparator<Student> order) {
+        Row[] rows = run.toArray(new Row[0]);
+        Arrays.parallelSort(rows, (a, b) -> order.compare(a.key, b.key)); // stable merge sort
+        for (int i = 0; i < rows.length; i++) run.set(i, rows[i]);
+    }
+
+    private static File spill(List<Row> run, Comparator<Student> order, File tempDir) throws IOException {
+        sortRun(run, order);
+        File f = tempFile(tempDir);
+        try (RowWriter writer = new RowWriter(f, false)) {
+            for (Row row : run) writer.write(row.bytes);
+        }
+        return f;
+    }
+
+    private static void write(List<Row> rows, File out) throws IOException {
+        try (RowWriter writer = new RowWriter(out, true)) {
+            for (Row row : rows) writer.write(row.bytes);
+        }
+    }
+
+    private static File tempFile(File dir) throws IOException {
+        File f = File.createTempFile("roster-run", ".csv", dir);
+        f.deleteOnExit();
+        return f;
+    }
+
+    /* ---------- Merging ---------- */
+
+    /** A run being merged and its current row. */
+    private static final class Cursor {
+        final RowReader reader;
+        final int index;      // breaks ties by run order, which keeps the merge stable
+        Row head;
+
+        Cursor(RowReader reader, int index) {
+            this.reader = reader;
+            this.index = index;
+        }
+    }
+
+    private static void merge(List<File> runs, File out, Comparator<Student> order, boolean header) throws IOException {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>(runs.size(), (a, b) -> {
+            int c = order.compare(a.head.key, b.head.key);
+            return c != 0 ? c : Integer.compare(a.index, b.index);
+        });
+        List<Cursor> open = new ArrayList<>();
+        try (RowWriter writer = new RowWriter(out, header)) {
+            for (int i = 0; i < runs.size(); i++) {
+                Cursor c = new Cursor(new RowReader(runs.get(i), false), i);
+                open.add(c);
+                if ((c.head = c.reader.next(order)) != null) heap.add(c);
+            }
+            while (!heap.isEmpty()) {
+                Cursor c = heap.poll();
+                writer.write(c.head.bytes);
+                if ((c.head = c.reader.next(order)) != null) heap.add(c);
+            }
+        } finally {
+            for (Cursor c : open) c.reader.close();
+        }
+    }
+
+    /* ---------- Row I/O ---------- */
+
+    /** Streams the rows of a roster file, decoding only the sort key of each. */
+    private static final class RowReader implements AutoCloseable {
+        private final FileChannel ch;
+        private final StudentCodec codec = new StudentCodec();
+        private ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        private int lineStart, end;
+        private boolean eof, skipHeader;
+
+        RowReader(File file, boolean skipHeader) throws IOException {
+            this.ch = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            this.skipHeader = skipHeader;
+        }
+
+        /** The next well-formed row, or null at the end of the file. */
+        Row next(Comparator<Student> order) throws IOException {
+            while (true) {
+                if (eof && lineStart >= end) return null;
+                int i = StudentCodec.nextRowEnd(buf, lineStart, end);
+                if (i == end && !eof) {
+                    fill();
+                    continue;
+                }
+
+                int from = lineStart;
+                int to = (i > from && buf.get(i - 1) == '\r') ? i - 1 : i;
+                lineStart = i + 1;
+                if (skipHeader) {
+                    skipHeader = false; // Skip the header line
+                    continue;
+                }
+                if (isBlank(from, to)) continue;
+                try {
+                    return new Row(key(from, to, order), Arrays.copyOfRange(buf.array(), from, to));
+                } catch (RuntimeException e) {
+                    String line = new String(buf.array(), from, to - from, StandardCharsets.UTF_8);
+                    System.err.println("Skipping malformed CSV line: " + line + " | Error: " + e.getMessage());
+                }
+            }
+        }
+
+        /** Keeps the partial line at the front of the buffer and reads more after it. */
+        private void fill() throws IOException {
+            if (lineStart == 0 && end == buf.capacity()) {
+                buf = ByteBuffer.allocate(buf.capacity() * 2).put(buf.array(), 0, end); // one huge row
+            } else {
+                buf.limit(end).position(lineStart);
+                buf.compact();
+            }
+            end -= lineStart;
+            lineStart = 0;
+            buf.limit(buf.capacity()).position(end);
+            if (ch.read(buf) < 0) eof = true;
+            end = buf.position();
+        }
+
+        private Student key(int from, int to, Comparator<Student> order) {
+            int c1 = StudentCodec.nextSeparator(buf, from, to, ',');
+            int c2 = c1 < to ? StudentCodec.nextSeparator(buf, c1 + 1, to, ',') : to;
+            if (c2 >= to) throw new IllegalArgumentException("expected ID,Name,CGPA");
+            int c3 = StudentCodec.nextSeparator(buf, c2 + 1, to, ',');
+            String name = codec.readText(buf, c1 + 1, c2, false);
+            // BY_NAME lower-cases on every comparison; doing it once here makes that a no-op scan
+            if (order == Algorithms.BY_NAME) name = name.toLowerCase();
+            return new Student(codec.readText(buf, from, c1, false), name, StudentCodec.parseDouble(buf, c2 + 1, c3));
+        }
+
+        private boolean isBlank(int from, int to) {
+            for (int i = from; i < to; i++) if (buf.get(i) > ' ') return false;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException { ch.close(); }
+    }
+
+    /** Buffered writer of raw rows, optionally after the FileManager header. */
+    private static final class RowWriter implements AutoCloseable {
+        private final FileChannel ch;
+        private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        RowWriter(File file, boolean header) throws IOException {
+            this.ch = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            if (header) write(FileManager.CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void write(byte[] row) throws IOException {
+            if (buf.remaining() < row.length + 1) drain();
+            if (buf.remaining() < row.length + 1) {
+                ByteBuffer big = ByteBuffer.wrap(row); // larger than the buffer
+                while (big.hasRemaining()) ch.write(big);
+                buf.put((byte) '\n');
+                return;
+            }
+            buf.put(row).put((byte) '\n');
+        }
+
+        private void drain() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                ch.close();
+            }
+        }
+    }
+}
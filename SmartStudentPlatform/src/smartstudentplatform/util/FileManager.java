@@ -1,56 +1,243 @@
 package smartstudentplatform.util;
 
+import smartstudentplatform.core.DuplicatePolicy;
+import smartstudentplatform.core.RosterDigest;
+import smartstudentplatform.core.ShardedStudentManager;
 import smartstudentplatform.core.StudentManager;
 import smartstudentplatform.model.Student;
 
 import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public class FileManager {
 
     // Define a header for the CSV file. This should match the format from Student.toCSV()
-    private static final String CSV_HEADER = "ID,Name,CGPA,Grades";
+    static final String CSV_HEADER = "ID,Name,CGPA,Grades";
+    private static final int BUFFER_SIZE = 1 << 16;
 
     /**
-     * Saves all student data to a CSV file using the Student.toCSV() method.
-     * Each student is saved on a single line.
+     * Saves all student data to a CSV file, one student per line.
+     * Rows are encoded by StudentCodec straight into a reusable buffer (same format as Student.toCSV()).
+     * The rows go to a temporary file next to {@code file} that then replaces it in one
+     * move, so a failed save leaves the old file intact, and students lazily loaded from
+     * {@code file} (see LazyRosterFile) can still read their grades while it is written.
      */
     public static void saveAllData(StudentManager manager, File file) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
-            writer.println(CSV_HEADER); // Write the header
-            for (Student student : manager.getAll()) {
-                writer.println(student.toCSV()); // Use the toCSV method from the Student class
+        writeReplacing(file, ch -> {
+            ByteBuffer buf = writeRows(ch, header(), manager.getAll());
+            drain(ch, buf);
+        });
+    }
+
+    /**
+     * Saves a sharded roster in the same format, one shard at a time under that
+     * shard's lock, so it can run while other threads keep changing the roster.
+     */
+    public static void saveAllData(ShardedStudentManager manager, File file) throws IOException {
+        writeReplacing(file, ch -> {
+            ByteBuffer[] buf = {header()};
+            IOException[] failed = {null};
+            manager.forEachShard(shard -> {
+                if (failed[0] != null) return;
+                try {
+                    buf[0] = writeRows(ch, buf[0], shard.getAll());
+                } catch (IOException e) {
+                    failed[0] = e;
+                }
+            });
+            if (failed[0] != null) throw failed[0];
+            drain(ch, buf[0]);
+        });
+    }
+
+    private interface ChannelWriter {
+        void write(FileChannel ch) throws IOException;
+    }
+
+    /** Writes a temporary file in {@code file}'s folder and moves it over {@code file} atomically. */
+    private static void writeReplacing(File file, ChannelWriter writer) throws IOException {
+        Path target = file.toPath().toAbsolutePath();
+        Path tmp = Files.createTempFile(target.getParent(), target.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                writer.write(ch);
             }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp); // only still there if the save failed
         }
     }
 
+    private static ByteBuffer header() {
+        ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        buf.put((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8)); // Write the header
+        return buf;
+    }
+
+    /** Encodes rows into {@code buf}, draining it to {@code ch} when full; returns the buffer in use. */
+    private static ByteBuffer writeRows(FileChannel ch, ByteBuffer buf, Iterable<Student> students) throws IOException {
+        StudentCodec codec = StudentCodec.shared();
+        for (Student student : students) {
+            while (true) {
+                int mark = buf.position();
+                try {
+                    codec.encode(student, buf);
+                    buf.put((byte) '\n');
+                    break;
+                } catch (BufferOverflowException full) {
+                    buf.position(mark);
+                    if (mark == 0) buf = ByteBuffer.allocateDirect(buf.capacity() * 2); // one huge row
+                    else drain(ch, buf);
+                }
+            }
+        }
+        return buf;
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
     /**
      * Loads student data from a CSV file using the Student.fromCSV() method.
      */
     public static void loadAllData(StudentManager manager, File file) throws IOException, ClassNotFoundException {
+        loadAllData(manager, file, false);
+    }
+
+    /**
+     * Loads student data, optionally in fast-start mode where only ID, name and CGPA
+     * are read up front and each student's grades are parsed on first use
+     * (see LazyRosterFile). The eager mode decodes every row with StudentCodec
+     * directly from the read buffer.
+     */
+    public static void loadAllData(StudentManager manager, File file, boolean lazy) throws IOException, ClassNotFoundException {
+        if (lazy) {
+            manager.replaceAll(LazyRosterFile.load(file), DuplicatePolicy.REPLACE);
+            return;
+        }
+        // Rows go straight into the staging roster, which replaces the manager's current data once all have parsed
+        StudentManager.Staging staging = manager.stage(DuplicatePolicy.REPLACE);
+        readAll(file, staging::add);
+        staging.swapIn();
+    }
+
+    /**
+     * Loads several saved rosters, e.g. one export per department, into one
+     * roster. The files are parsed in parallel, and their students are staged
+     * in the order of {@code files}, so a repeated ID (ignoring case) is
+     * combined with {@code policy}: with REPLACE the later record wins, with
+     * MERGE the grades are united (later scores win). The result replaces the
+     * manager's roster in one step.
+     *
+     * @return how many rows repeated an ID staged earlier
+     */
+    public static int loadAllData(StudentManager manager, List<File> files, DuplicatePolicy policy) throws IOException {
+        StudentManager.Staging staging = stageAll(manager, files, policy);
+        staging.swapIn();
+        return staging.getDuplicates();
+    }
+
+    /**
+     * Parses and stages the files as loadAllData does, without swapping them
+     * in, so the caller can parse off the EDT and swap on it. Only the staging
+     * roster is touched until swapIn().
+     */
+    public static StudentManager.Staging stageAll(StudentManager manager, List<File> files, DuplicatePolicy policy) throws IOException {
+        List<List<Student>> parsed;
+        try {
+            parsed = files.parallelStream().map(f -> {
+                try {
+                    return readAll(f);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(f.getName() + ": " + e.getMessage(), e);
+                }
+            }).collect(Collectors.toList()); // keeps the order of files
+        } catch (UncheckedIOException e) {
+            throw new IOException(e.getMessage(), e.getCause());
+        }
+
+        StudentManager.Staging staging = manager.stage(policy);
+        for (int i = 0; i < parsed.size(); i++) {
+            for (Student s : parsed.get(i)) staging.add(s);
+            parsed.set(i, null); // the staging roster holds the students now
+        }
+        return staging;
+    }
+
+    /**
+     * Merkle digest of a saved roster, to diff against a StudentManager's
+     * (see RosterDiff); a later row with a repeated ID replaces the earlier one,
+     * as when loading.
+     */
+    public static RosterDigest digest(File file) throws IOException {
+        return RosterDigest.of(readAll(file));
+    }
+
+    private static List<Student> readAll(File file) throws IOException {
         List<Student> loadedStudents = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            reader.readLine(); // Skip the header line
+        readAll(file, loadedStudents::add);
+        return loadedStudents;
+    }
+
+    /** Decodes every row of a saved roster into {@code sink}, skipping malformed rows. */
+    private static void readAll(File file, Consumer<Student> sink) throws IOException {
+        StudentCodec codec = StudentCodec.shared();
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+        boolean header = true;
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue; // Skip any blank lines
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (true) {
+                boolean eof = ch.read(buf) < 0;
+                int end = buf.position(), lineStart = 0;
+                while (lineStart <= end) {
+                    // a newline inside a quoted field does not end the row
+                    int i = StudentCodec.nextRowEnd(buf, lineStart, end);
+                    if (i == end && !eof) break;
+                    int lineEnd = (i > lineStart && buf.get(i - 1) == '\r') ? i - 1 : i;
+                    if (header) {
+                        header = false; // Skip the header line
+                    } else if (!isBlank(buf, lineStart, lineEnd)) {
+                        try {
+                            sink.accept(codec.decode(buf, lineStart, lineEnd));
+                        } catch (Exception e) {
+                            // If a line in the CSV is badly formatted, we print an error and continue
+                            String line = new String(buf.array(), lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+                            System.err.println("Skipping malformed CSV line: " + line + " | Error: " + e.getMessage());
+                        }
+                    }
+                    lineStart = i + 1;
                 }
-                try {
-                    // Use the fromCSV method from the Student class to create a student object
-                    Student student = Student.fromCSV(line);
-                    loadedStudents.add(student);
-                } catch (Exception e) {
-                    // If a line in the CSV is badly formatted, we print an error and continue
-                    System.err.println("Skipping malformed CSV line: " + line + " | Error: " + e.getMessage());
+                if (eof) break;
+
+                // keep the partial last line for the next read, growing the buffer if one line fills it
+                if (lineStart == 0 && end == buf.capacity()) {
+                    ByteBuffer bigger = ByteBuffer.allocate(buf.capacity() * 2);
+                    buf.flip();
+                    buf = bigger.put(buf);
+                } else {
+                    buf.limit(end).position(lineStart);
+                    buf.compact();
                 }
             }
         }
+    }
 
-        // Clear the manager's current data and add all the newly loaded students
-        manager.getAll().clear();
-        manager.getAll().addAll(loadedStudents);
+    private static boolean isBlank(ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) if (buf.get(i) > ' ') return false;
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,433 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.core.DuplicatePolicy;
+import smartstudentplatform.core.IdCodec;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Background ingestion of CSV files that other systems keep appending to in a
+ * shared folder.
+ *
+ * For every *.csv file the ingestor remembers how many bytes it has consumed,
+ * and on each change reads only the complete lines appended since then. The
+ * rows are applied to the StudentManager as upserts. Work is proportional to
+ * the new data, not to the roster.
+ *
+ * The roster only lives in memory until its owner saves it, so the offsets
+ * reach the checkpoint file (written to a temp file and atomically moved into
+ * place) only through {@link #commitCheckpoint()}, which the owner calls once
+ * the roster is saved. A restart then resumes from the last save: rows applied
+ * but never saved are read again, which the upserts tolerate.
+ *
+ * Two kinds of file are understood:
+ *   students  ID,Name,CGPA[,Grades] in the FileManager row format, merged
+ *             into existing students (DuplicatePolicy.MERGE)
+ *   results   StudentID,CourseCode,Score[,CourseName], applied with addResult
+ * A file is a results file if its header mentions a course or score, or, for
+ * files without a header, if its name contains "result" or "grade". A result
+ * for a student who has not arrived yet waits, in order with that student's
+ * later results, and is applied once the student does; the checkpoint does
+ * not move past a waiting row.
+ *
+ * Changes are picked up through a WatchService, with a periodic rescan as a
+ * fallback for network shares that do not deliver file events. Rows are
+ * parsed on the ingest thread and applied through the {@code applyOn}
+ * executor (e.g. the Swing event thread), since StudentManager is not
+ * thread-safe.
+ */
+public class FolderIngestor implements AutoCloseable {
+    public static final String CHECKPOINT_FILE = ".ingest-checkpoint";
+    private static final int CHUNK_SIZE = 1 << 20;         // bytes parsed and applied per batch
+    private static final long RESCAN_SECONDS = 5;
+    private static final int DEFAULT_CREDITS = 3;          // as in the Add Course Result dialog
+
+    private final Path folder;
+    private final Path checkpointFile;
+    private final StudentManager manager;
+    private final Executor applyOn;
+    private final Map<String, Long> offsets = new HashMap<>();         // file name -> bytes consumed
+    private final Map<String, Long> appliedOffsets = new ConcurrentHashMap<>(); // same, once applied
+    private final List<ResultRow> waiting = new ArrayList<>();         // apply thread only
+    private final Map<String, Integer> waitingByStudent = new HashMap<>(); // normalized ID -> rows waiting
+    private final Map<String, Boolean> resultsFiles = new HashMap<>(); // file name -> is a results file
+    private final StudentCodec codec = new StudentCodec();
+    private final AtomicLong applied = new AtomicLong(), rejected = new AtomicLong();
+
+    private volatile boolean running;
+    private WatchService watcher;
+    private Thread thread;
+
+    /** Keeps the checkpoint in {@code folder} itself. */
+    public FolderIngestor(Path folder, StudentManager manager, Executor applyOn) throws IOException {
+        this(folder, manager, applyOn, folder.resolve(CHECKPOINT_FILE));
+    }
+
+    public FolderIngestor(Path folder, StudentManager manager, Executor applyOn, Path checkpointFile) throws IOException {
+        if (!Files.isDirectory(folder)) throw new IOException("Not a folder: " + folder);
+        this.folder = folder;
+        this.manager = manager;
+        this.applyOn = applyOn;
+        this.checkpointFile = checkpointFile;
+        loadCheckpoint();
+    }
+
+    /** Rows applied so far. */
+    public long getAppliedRows() { return applied.get(); }
+
+    /** Malformed rows and rows the manager refused (e.g. a score out of range). */
+    public long getRejectedRows() { return rejected.get(); }
+
+    /** Results rows waiting for their student to arrive. */
+    public int getWaitingRows() {
+        synchronized (waiting) {
+            return waiting.size();
+        }
+    }
+
+    public Path getFolder() { return folder; }
+
+    /* -------- Running -------- */
+    /** Catches up on every file, then keeps watching on a background thread. */
+    public synchronized void start() throws IOException {
+        if (running) return;
+        watcher = folder.getFileSystem().newWatchService();
+        folder.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        running = true;
+        thread = new Thread(this::watchLoop, "folder-ingestor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (thread != null) thread.interrupt();
+        try {
+            if (watcher != null) watcher.close();
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+    }
+
+    private void watchLoop() {
+        try {
+            scanAll();
+            while (running) {
+                WatchKey key = watcher.poll(RESCAN_SECONDS, TimeUnit.SECONDS);
+                if (key == null) {
+                    scanAll(); // no events: rescan in case the file system does not report them
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scanAll();
+                        continue;
+                    }
+                    String name = event.context().toString();
+                    if (!isCsv(name)) continue;
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) forget(name);
+                    else scanFile(name);
+                }
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // stopped
+        } catch (IOException e) {
+            System.err.println("Folder ingestion stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies whatever has been appended to any *.csv file since the last
+     * checkpoint. Returns the number of rows applied.
+     */
+    public synchronized long scanAll() throws IOException {
+        long before = applied.get();
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*.csv")) {
+            for (Path p : files) names.add(p.getFileName().toString());
+        }
+        // students before results, so a new student's first grades do not arrive ahead of them
+        names.sort(Comparator.comparing((String n) -> isResultsFile(n)).thenComparing(n -> n));
+        for (String name : names) scanFile(name);
+        for (String name : new ArrayList<>(offsets.keySet())) {
+            if (!names.contains(name)) forget(name);
+        }
+        return applied.get() - before;
+    }
+
+    /* -------- Incremental reading -------- */
+    private synchronized void scanFile(String name) throws IOException {
+        Path file = folder.resolve(name);
+        if (!Files.isRegularFile(file)) return;
+        long offset = offsets.getOrDefault(name, 0L);
+        long size = Files.size(file);
+        if (size < offset) {
+            System.err.println(name + " shrank (replaced or truncated); reading it again from the start");
+            offset = 0;
+            resultsFiles.remove(name);
+        }
+        if (size == offset) return;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, size - offset + 1));
+            while (offset < size) {
+                buf.clear();
+                ch.read(buf, offset);
+                int lastNewline = -1;  // end of the last complete row; quoted newlines do not end one
+                for (int i; (i = StudentCodec.nextRowEnd(buf, lastNewline + 1, buf.position())) < buf.position(); ) {
+                    lastNewline = i;
+                }
+                if (lastNewline < 0) {
+                    if (buf.position() < buf.capacity()) break;       // an unfinished last line: wait for the rest
+                    buf = ByteBuffer.allocate(buf.capacity() * 2);    // one line longer than the buffer
+                    continue;
+                }
+
+                List<Consumer<StudentManager>> batch = parse(name, offset, buf, lastNewline);
+                offset += lastNewline + 1;
+                applyBatch(name, offset, batch);
+                offsets.put(name, offset);
+            }
+        }
+    }
+
+    /** Turns the complete lines in buf[0, end) into upserts. */
+    private List<Consumer<StudentManager>> parse(String name, long fileOffset, ByteBuffer buf, int end) {
+        List<Consumer<StudentManager>> batch = new ArrayList<>();
+        for (int from = 0; from < end; ) {
+            int to = StudentCodec.nextRowEnd(buf, from, end);
+            int next = to + 1;
+            if (to > from && buf.get(to - 1) == '\r') to--;
+
+            if (!isBlank(buf, from, to)) {
+                if (fileOffset + from == 0) {
+                    boolean header = isHeader(buf, from, to);
+                    resultsFiles.put(name, header ? headerNamesResults(buf, from, to) : nameSuggestsResults(name));
+                    if (header) {
+                        from = next;
+                        continue;
+                    }
+                }
+                try {
+                    batch.add(isResultsFile(name) ? result(name, fileOffset + from, buf, from, to) : student(buf, from, to));
+                } catch (RuntimeException e) {
+                    rejected.incrementAndGet();
+                    System.err.println("Skipping malformed CSV line in " + name + ": "
+                            + text(buf, from, to) + " | Error: " + e.getMessage());
+                }
+            }
+            from = next;
+        }
+        return batch;
+    }
+
+    private Consumer<StudentManager> student(ByteBuffer buf, int from, int to) {
+        Student s = codec.decode(buf, from, to);
+        return m -> m.addStudent(s, DuplicatePolicy.MERGE);
+    }
+
+    private Consumer<StudentManager> result(String file, long offset, ByteBuffer buf, int from, int to) {
+        int c1 = StudentCodec.nextSeparator(buf, from, to, ',');
+        int c2 = c1 < to ? StudentCodec.nextSeparator(buf, c1 + 1, to, ',') : to;
+        if (c2 >= to) throw new IllegalArgumentException("expected StudentID,CourseCode,Score");
+        int c3 = StudentCodec.nextSeparator(buf, c2 + 1, to, ',');
+
+        String id = codec.readText(buf, from, c1, false).trim();
+        String code = codec.readText(buf, c1 + 1, c2, true).trim();
+        double score = StudentCodec.parseDouble(buf, c2 + 1, c3);
+        String courseName = c3 < to ? codec.readText(buf, c3 + 1, to, true).trim() : code;
+        return new ResultRow(file, offset, id, new Course(code, courseName, DEFAULT_CREDITS), score);
+    }
+
+    /** A results row, which waits if its student has not arrived yet. */
+    private static final class ResultRow implements Consumer<StudentManager> {
+        final String file;
+        final long offset;          // where the row starts in the file
+        final String studentId;
+        final Course course;
+        final double score;
+
+        ResultRow(String file, long offset, String studentId, Course course, double score) {
+            this.file = file;
+            this.offset = offset;
+            this.studentId = studentId;
+            this.course = course;
+            this.score = score;
+        }
+
+        @Override
+        public void accept(StudentManager m) { m.addResult(studentId, course, score); }
+    }
+
+    /**
+     * Applies a batch on the apply executor and waits, then records that the
+     * file has been applied up to {@code end}. Waiting results rows are retried
+     * after the batch, since it may have brought their students.
+     */
+    private void applyBatch(String file, long end, List<Consumer<StudentManager>> batch) {
+        CompletableFuture.runAsync(() -> {
+            manager.batch(() -> { // one undo step on a versioned manager
+                for (Consumer<StudentManager> op : batch) {
+                    if (op instanceof ResultRow && mustWait((ResultRow) op)) continue;
+                    apply(op);
+                }
+                retryWaiting();
+            });
+            appliedOffsets.put(file, end);
+        }, applyOn).join();
+    }
+
+    private void apply(Consumer<StudentManager> op) {
+        try {
+            op.accept(manager);
+            applied.incrementAndGet();
+        } catch (RuntimeException e) {
+            rejected.incrementAndGet();
+            System.err.println("Skipping row: " + e.getMessage());
+        }
+    }
+
+    /** Queues the row if its student is missing or already has rows waiting ahead of it. */
+    private boolean mustWait(ResultRow row) {
+        String key = IdCodec.normalize(row.studentId);
+        if (!waitingByStudent.containsKey(key) && manager.getById(row.studentId) != null) return false;
+        synchronized (waiting) {
+            waiting.add(row);
+        }
+        waitingByStudent.merge(key, 1, Integer::sum);
+        return true;
+    }
+
+    private void retryWaiting() {
+        synchronized (waiting) {
+            if (waiting.isEmpty()) return;
+            Iterator<ResultRow> it = waiting.iterator();
+            while (it.hasNext()) {
+                ResultRow row = it.next();
+                if (manager.getById(row.studentId) == null) continue; // its later rows wait too
+                it.remove();
+                waitingByStudent.computeIfPresent(IdCodec.normalize(row.studentId), (k, n) -> n == 1 ? null : n - 1);
+                apply(row);
+            }
+        }
+    }
+
+    /* -------- File kinds -------- */
+    private boolean isResultsFile(String name) {
+        return resultsFiles.computeIfAbsent(name, n -> {
+            // resuming mid-file: decide from the first line again
+            try (InputStream in = Files.newInputStream(folder.resolve(n))) {
+                byte[] head = in.readNBytes(4096);
+                ByteBuffer b = ByteBuffer.wrap(head);
+                int end = StudentCodec.nextRowEnd(b, 0, head.length);
+                return isHeader(b, 0, end) ? headerNamesResults(b, 0, end) : nameSuggestsResults(n);
+            } catch (IOException e) {
+                return nameSuggestsResults(n);
+            }
+        });
+    }
+
+    /** A first line whose third field is not a number. */
+    private static boolean isHeader(ByteBuffer buf, int from, int to) {
+        int c1 = StudentCodec.nextSeparator(buf, from, to, ',');
+        int c2 = c1 < to ? StudentCodec.nextSeparator(buf, c1 + 1, to, ',') : to;
+        if (c2 >= to) return true;
+        try {
+            StudentCodec.parseDouble(buf, c2 + 1, StudentCodec.nextSeparator(buf, c2 + 1, to, ','));
+            return false;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static boolean headerNamesResults(ByteBuffer buf, int from, int to) {
+        String header = text(buf, from, to).toLowerCase(Locale.ROOT);
+        return header.contains("course") || header.contains("score");
+    }
+
+    private static boolean nameSuggestsResults(String name) {
+        String n = name.toLowerCase(Locale.ROOT);
+        return n.contains("result") || n.contains("grade");
+    }
+
+    private static boolean isCsv(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".csv");
+    }
+
+    /* -------- Checkpoints -------- */
+    /**
+     * Saves how far every file has been applied as the checkpoint, held back
+     * to the first results row still waiting in each file. Call it on the
+     * apply thread right after the roster has been saved, so the checkpoint
+     * never runs ahead of what is on disk.
+     */
+    public void commitCheckpoint() throws IOException {
+        Map<String, Long> committed = new TreeMap<>(appliedOffsets);
+        synchronized (waiting) {
+            for (ResultRow row : waiting) committed.merge(row.file, row.offset, Math::min);
+        }
+        saveCheckpoint(committed);
+    }
+
+    private synchronized void forget(String name) {
+        resultsFiles.remove(name);
+        offsets.remove(name);
+        appliedOffsets.remove(name);  // dropped from the next checkpoint
+    }
+
+    private void loadCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) return;
+        Properties p = new Properties();
+        try (InputStream in = Files.newInputStream(checkpointFile)) {
+            p.load(in);
+        }
+        for (String name : p.stringPropertyNames()) {
+            try {
+                long offset = Long.parseLong(p.getProperty(name).trim());
+                offsets.put(name, offset);
+                appliedOffsets.put(name, offset);
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring bad checkpoint entry for " + name);
+            }
+        }
+    }
+
+    private void saveCheckpoint(Map<String, Long> committed) throws IOException {
+        Properties p = new Properties();
+        for (Map.Entry<String, Long> e : committed.entrySet()) p.setProperty(e.getKey(), Long.toString(e.getValue()));
+        Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            p.store(out, "bytes ingested per file");
+        }
+        Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* -------- Helpers -------- */
+    private static boolean isBlank(ByteBuffer buf, int from, int to) {
+        for (int i = from; i < to; i++) if (buf.get(i) > ' ') return false;
+        return true;
+    }
+
+    private static String text(ByteBuffer buf, int from, int to) {
+        return new String(buf.array(), from, to - from, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,68 @@
+package smartstudentplatform.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Lock-free latency histogram in microseconds.
+ * Buckets are log-linear: each power of two is split into 8 sub-buckets, so a
+ * reported percentile is within about 12% of the true value, from 1 µs up to
+ * hours, in a fixed 4 KB of counters.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 << SUB_BITS);
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(bucket(micros));
+        max.accumulate(micros);
+    }
+
+    public long count() {
+        long n = 0;
+        for (int i = 0; i < counts.length(); i++) n += counts.get(i);
+        return n;
+    }
+
+    public long maxMicros() { return max.get(); }
+
+    /** Upper bound (µs) of the bucket holding the {@code p} quantile, 0 &lt; p &lt;= 1. */
+    public long percentileMicros(double p) {
+        long total = count();
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(p * total), seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    static int bucket(long v) {
+        if (v < SUB_COUNT) return (int) v;                 // small values are exact
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((exp - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int exp = (bucket >>> SUB_BITS) + SUB_BITS - 1;
+        int sub = bucket & (SUB_COUNT - 1);
+        return ((long) (SUB_COUNT + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+
+    /** {"count":..,"p50":..,"p90":..,"p99":..,"p999":..,"max":..} in microseconds. */
+    public String toJson() {
+        return "{\"count\":" + count()
+                + ",\"p50\":" + percentileMicros(0.50)
+                + ",\"p90\":" + percentileMicros(0.90)
+                + ",\"p99\":" + percentileMicros(0.99)
+                + ",\"p999\":" + percentileMicros(0.999)
+                + ",\"max\":" + maxMicros() + "}";
+    }
+}
@@ -0,0 +1,219 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fast-start loader for files written by FileManager.saveAllData().
+ *
+ * The file is memory-mapped and a single pass reads only each row's ID, name
+ * and CGPA, remembering where its grades field lives. A student's grades are
+ * parsed from the mapping the first time they are needed and then kept, so
+ * opening a large roster no longer pays for parsing every grade list.
+ *
+ * The file must not be modified while lazily loaded students refer to it.
+ */
+public final class LazyRosterFile {
+    private static final int CHUNK_BITS = 30;              // map in 1 GB pieces
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+    private final StudentCodec codec = new StudentCodec();
+    private ByteBuffer scratch = ByteBuffer.allocate(256);
+    private int rangeAt;
+
+    private LazyRosterFile(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            size = ch.size();
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_BITS;
+                chunks[i] = ch.map(FileChannel.MapMode.READ_ONLY, start, Math.min(1L << CHUNK_BITS, size - start));
+            }
+        }
+    }
+
+    /** Indexes the file and returns its students with their grades not yet parsed. */
+    public static List<Student> load(File file) throws IOException {
+        return new LazyRosterFile(file).index();
+    }
+
+    private List<Student> index() {
+        List<Student> students = new ArrayList<>();
+        long[] commas = new long[4];
+        long pos = nextLine(0); // skip the header line
+
+        while (pos < size) {
+            long start = pos, end = pos;
+            int found = 0, grades = 0, quotes = 0; // quotes seen in the current field
+            boolean colon = false, counted = false;
+            // one pass finds the field separators and counts "code:score" tokens in the grades field;
+            // the inner loop stays inside one mapped chunk and only steps out when a line crosses into the next
+            while (end < size) {
+                MappedByteBuffer buf = chunks[(int) (end >>> CHUNK_BITS)];
+                long base = end & ~CHUNK_MASK;
+                int i = (int) (end & CHUNK_MASK), limit = buf.limit();
+                for (byte b; i < limit && ((b = buf.get(i)) != '\n' || (quotes & 1) != 0); i++) {
+                    if (b == '"') {
+                        quotes++;
+                    } else if ((quotes & 1) == 0 && b == ',') {
+                        if (found < commas.length) commas[found] = base + i;
+                        found++;
+                        quotes = 0;
+                    } else if (found == 3 && (quotes & 3) != 3) { // not inside a quoted code or name
+                        if (b == ';') { colon = false; counted = false; }
+                        else if (b == ':') colon = true;
+                        else if (colon && !counted) { grades++; counted = true; }
+                    }
+                }
+                end = base + i;
+                if (i < limit) break; // reached the newline
+            }
+            pos = end + 1;
+            if (end > start && get(end - 1) == '\r') end--;
+            if (found == 0 && text(start, end).trim().isEmpty()) continue; // Skip any blank lines
+
+            try {
+                if (found < 2) throw new IllegalArgumentException("expected ID,Name,CGPA");
+                String id = text(start, commas[0]);
+                String name = text(commas[0] + 1, commas[1]);
+                double cgpa = number(commas[1] + 1, found > 2 ? commas[2] : end);
+                long gradesFrom = found > 2 ? commas[2] + 1 : end;
+                long gradesTo = found > 3 ? commas[3] : end;   // same field Student.fromCSV() reads
+                students.add(new LazyStudent(id, name, cgpa, this, gradesFrom, (int) (gradesTo - gradesFrom), grades));
+            } catch (RuntimeException e) {
+                System.err.println("Skipping malformed CSV line: " + text(start, end) + " | Error: " + e.getMessage());
+            }
+        }
+        return students;
+    }
+
+    private long nextLine(long pos) {
+        boolean quoted = false;
+        for (byte b; pos < size && ((b = get(pos)) != '\n' || quoted); pos++) {
+            if (b == '"') quoted = !quoted;
+        }
+        return pos + 1;
+    }
+
+    private byte get(long pos) {
+        return chunks[(int) (pos >>> CHUNK_BITS)].get((int) (pos & CHUNK_MASK));
+    }
+
+    /* Field readers: the range is handed to the codec in place when it lies in one chunk. */
+    private synchronized String text(long from, long to) {
+        return codec.readText(locate(from, to), rangeAt, rangeAt + (int) (to - from), false);
+    }
+
+    private synchronized double number(long from, long to) {
+        return StudentCodec.parseDouble(locate(from, to), rangeAt, rangeAt + (int) (to - from));
+    }
+
+    private synchronized void grades(Student student, long from, long to) {
+        codec.decodeGradesField(student, locate(from, to), rangeAt, rangeAt + (int) (to - from));
+    }
+
+    /** Buffer holding [from, to); sets rangeAt to where the range starts in it. */
+    private ByteBuffer locate(long from, long to) {
+        MappedByteBuffer buf = chunks[(int) (from >>> CHUNK_BITS)];
+        int at = (int) (from & CHUNK_MASK), len = (int) (to - from);
+        if (at + len <= buf.limit()) {
+            rangeAt = at;
+            return buf;
+        }
+        if (len > scratch.capacity()) scratch = ByteBuffer.allocate(Math.max(len, scratch.capacity() * 2));
+        for (int i = 0; i < len; i++) scratch.put(i, get(from + i)); // spans two chunks
+        rangeAt = 0;
+        return scratch;
+    }
+
+    /**
+     * A student whose grades stay in the mapped file until first use.
+     * Every grade accessor parses them once and then behaves like Student.
+     */
+    public static final class LazyStudent extends Student {
+        private static final long serialVersionUID = 1L;
+
+        private transient LazyRosterFile source;   // null once parsed
+        private final long offset;
+        private final int length;
+        private final int gradeEstimate;
+        private volatile boolean loaded;
+
+        LazyStudent(String id, String name, double cgpa, LazyRosterFile source,
+                    long offset, int length, int gradeEstimate) {
+            super(id, name, cgpa);
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+            this.gradeEstimate = gradeEstimate;
+            this.loaded = length == 0;
+        }
+
+        public boolean isLoaded() { return loaded; }
+
+        @Override
+        public Map<String, Double> getGrades() {
+            ensureLoaded();
+            return super.getGrades();
+        }
+
+        @Override
+        public String getCourseName(String courseCode) {
+            ensureLoaded();
+            return super.getCourseName(courseCode);
+        }
+
+        @Override
+        public void addGrade(String courseCode, double score) {
+            ensureLoaded();
+            super.addGrade(courseCode, score);
+        }
+
+        @Override
+        public void addGrade(String courseCode, String courseName, double score) {
+            ensureLoaded();
+            super.addGrade(courseCode, courseName, score);
+        }
+
+        /** Estimated from the raw field until the grades have been parsed. */
+        @Override
+        public int gradeCount() {
+            return loaded ? super.gradeCount() : gradeEstimate;
+        }
+
+        /** Serialized as a plain Student with its grades: the mapping is not serialized. */
+        private Object writeReplace() {
+            return new Student(this);
+        }
+
+        private void ensureLoaded() {
+            if (loaded) return;
+            synchronized (this) {
+                if (loaded) return;
+                // parse into a scratch student, then copy with super calls so this does not re-enter
+                Student parsed = new Student();
+                try {
+                    source.grades(parsed, offset, offset + length);
+                } catch (RuntimeException e) {
+                    System.err.println("Skipping malformed grades for " + getId() + " | Error: " + e.getMessage());
+                }
+                for (Map.Entry<String, Double> g : parsed.getGrades().entrySet()) {
+                    super.addGrade(g.getKey(), parsed.getCourseName(g.getKey()), g.getValue());
+                }
+                source = null;
+                loaded = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package smartstudentplatform.util;
+
+import smartstudentplatform.model.Student;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Byte-level codec for the student row format used by FileManager:
+ *
+ *   id,name,cgpa,code:score:courseName;code:score:courseName
+ *
+ * Rows are written straight into a caller's ByteBuffer and parsed from a byte
+ * range, with no intermediate line, token or number strings. Fields are quoted
+ * as in RFC 4180 (see CsvReader): a field containing a comma, quote or line
+ * break is wrapped in quotes with its quotes doubled. Inside the grades field a
+ * code or course name containing ':' or ';' is quoted the same way, which then
+ * quotes the whole grades field too, so any name survives a round trip and the
+ * file stays plain CSV. Files written before quoting read the same unless a
+ * field starts with a quote.
+ *
+ * Numbers are written in the shortest plain decimal form that reads back to
+ * the same double, and read with an exact fast path for such values.
+ *
+ * A codec keeps scratch space and a small cache of course codes and names, so
+ * an instance must not be shared between threads; use {@link #shared()}.
+ */
+public final class StudentCodec {
+    private static final ThreadLocal<StudentCodec> SHARED = ThreadLocal.withInitial(StudentCodec::new);
+    private static final String UNKNOWN_COURSE = "Unknown Course";
+
+    private static final long[] POW10 = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+    };
+    private static final double[] EXACT_POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT = 1L << 53;     // largest range where every long is a double
+
+    private static final int SYMBOL_MAX = 32;           // longest course code/name kept in the cache
+
+    private byte[] scratch = new byte[64];
+    private final String[] symbols = new String[1024];
+    private ByteBuffer line = ByteBuffer.allocate(256);
+
+    public StudentCodec() {}
+
+    /** The calling thread's codec. */
+    public static StudentCodec shared() { return SHARED.get(); }
+
+    /* ---------- Encoding ---------- */
+
+    /**
+     * Writes one row (without line terminator) at the buffer's position.
+     * @throws BufferOverflowException if the row does not fit; the position is then undefined
+     */
+    public void encode(Student s, ByteBuffer out) {
+        writeText(out, s.getId(), false, 1);
+        out.put((byte) ',');
+        writeText(out, s.getName(), false, 1);
+        out.put((byte) ',');
+        writeDouble(out, s.getCgpa());
+        out.put((byte) ',');
+
+        boolean quoted = false;
+        for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+            if (needsQuotes(g.getKey(), true) || needsQuotes(s.getCourseName(g.getKey()), true)) {
+                quoted = true;
+                break;
+            }
+        }
+        int quote = quoted ? 2 : 1; // quotes of a quoted code or name are doubled again inside the quoted field
+        if (quoted) out.put((byte) '"');
+        boolean first = true;
+        for (Map.Entry<String, Double> g : s.getGrades().entrySet()) {
+            if (!first) out.put((byte) ';');
+            first = false;
+            writeText(out, g.getKey(), true, quote);
+            out.put((byte) ':');
+            writeDouble(out, g.getValue());
+            out.put((byte) ':');
+            writeText(out, s.getCourseName(g.getKey()), true, quote);
+        }
+        if (quoted) out.put((byte) '"');
+    }
+
+    /** Row as a String, for Student.toCSV(). */
+    public String toCSV(Student s) {
+        while (true) {
+            line.clear();
+            try {
+                encode(s, line);
+                return new String(line.array(), 0, line.position(), StandardCharsets.UTF_8);
+            } catch (BufferOverflowException full) {
+                line = ByteBuffer.allocate(line.capacity() * 2);
+            }
+        }
+    }
+
+    /** True if the text must be quoted; inside the grades field ':' and ';' count as separators too. */
+    private static boolean needsQuotes(String s, boolean grade) {
+        if (s == null) return false;
+        for (int i = 0; i < s.length(); i++) {
+            switch (s.charAt(i)) {
+                case ',': case '"': case '\n': case '\r':
+                    return true;
+                case ':': case ';':
+                    if (grade) return true;
+                    break;
+                default:
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes a field as UTF-8, quoted if it needs to be. {@code quote} is how many
+     * bytes stand for one quote character: 2 inside an already quoted field.
+     */
+    private static void writeText(ByteBuffer out, String s, boolean grade, int quote) {
+        if (s == null) return;
+        boolean quoted = needsQuotes(s, grade);
+        if (quoted) putQuotes(out, quote);
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '"') {
+                putQuotes(out, 2 * quote);
+            } else if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                out.put((byte) (0xF0 | (cp >> 18)));
+                out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // unpaired surrogate, as String.getBytes() does
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        if (quoted) putQuotes(out, quote);
+    }
+
+    private static void putQuotes(ByteBuffer out, int n) {
+        for (int i = 0; i < n; i++) out.put((byte) '"');
+    }
+
+    /**
+     * Writes the shortest plain decimal (with at least one fractional digit, like
+     * Double.toString) that parses back to exactly {@code v}.
+     */
+    static void writeDouble(ByteBuffer out, double v) {
+        double a = Math.abs(v);
+        if (v != 0 && a < 1e9) {
+            for (int k = 1; k < POW10.length; k++) {
+                long p = POW10[k];
+                double scaled = a * p;
+                if (scaled >= MAX_EXACT) break;
+                long m = Math.round(scaled);
+                // m and p are exact doubles, so this division is correctly rounded: if it
+                // gives back v, then so does parsing the decimal m / 10^k
+                if (m / (double) p == a) {
+                    if (v < 0) out.put((byte) '-');
+                    writeLong(out, m / p);
+                    out.put((byte) '.');
+                    long frac = m % p;
+                    for (long d = p / 10; d > 0; d /= 10) out.put((byte) ('0' + (frac / d) % 10));
+                    return;
+                }
+            }
+        }
+        String s = Double.toString(v); // zero, huge, tiny or non-finite values
+        for (int i = 0; i < s.length(); i++) out.put((byte) s.charAt(i));
+    }
+
+    private static void writeLong(ByteBuffer out, long v) {
+        long d = 1;
+        while (d <= v / 10) d *= 10;
+        for (; d > 0; d /= 10) out.put((byte) ('0' + (v / d) % 10));
+    }
+
+    /* ---------- Decoding ---------- */
+
+    /** Parses a row from bytes [from, to) of {@code in} (absolute positions, not consumed). */
+    public Student decode(ByteBuffer in, int from, int to) {
+        int c1 = nextSeparator(in, from, to, ',');
+        int c2 = c1 < to ? nextSeparator(in, c1 + 1, to, ',') : to;
+        if (c2 >= to) throw new IllegalArgumentException("Invalid CSV line: " + raw(in, from, to));
+        int c3 = nextSeparator(in, c2 + 1, to, ',');
+
+        Student student = new Student(readText(in, from, c1, false), readText(in, c1 + 1, c2, false),
+                parseDouble(in, c2 + 1, c3));
+        if (c3 < to) {
+            decodeGradesField(student, in, c3 + 1, nextSeparator(in, c3 + 1, to, ','));
+        }
+        return student;
+    }
+
+    /** Adds the grades of a grades field as it appears in a row, quoted or not, held in bytes [from, to). */
+    public void decodeGradesField(Student student, ByteBuffer in, int from, int to) {
+        if (from < to && in.get(from) == '"') {
+            int n = unquote(in, from, to);
+            decodeGrades(student, ByteBuffer.wrap(Arrays.copyOf(scratch, n)), 0, n); // readText reuses scratch
+        } else {
+            decodeGrades(student, in, from, to);
+        }
+    }
+
+    /** Row from a String, for Student.fromCSV(). */
+    public Student fromCSV(String csvLine) {
+        byte[] bytes = csvLine.getBytes(StandardCharsets.UTF_8);
+        return decode(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /** Adds every grade in unquoted "code:score:name;..." content held in bytes [from, to). */
+    public void decodeGrades(Student student, ByteBuffer in, int from, int to) {
+        for (int t = from; t < to; ) {
+            int end = nextSeparator(in, t, to, ';');
+            int k1 = nextSeparator(in, t, end, ':');
+            int k2 = k1 < end ? nextSeparator(in, k1 + 1, end, ':') : end;
+            if (k1 < end && (k1 + 1 < k2 || k2 < end)) {         // needs at least "code:score"
+                String code = readText(in, t, k1, true);
+                double score = parseDouble(in, k1 + 1, k2);
+                String name = UNKNOWN_COURSE;
+                if (k2 + 1 < end && nextSeparator(in, k2 + 1, end, ':') == end) {
+                    name = readText(in, k2 + 1, end, true);
+                }
+                student.addGrade(code, name, score);
+            }
+            t = end + 1;
+        }
+    }
+
+    /** String form of {@link #decodeGrades(Student, ByteBuffer, int, int)}. */
+    public void decodeGrades(Student student, String gradesField) {
+        byte[] bytes = gradesField.getBytes(StandardCharsets.UTF_8);
+        decodeGrades(student, ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    /** Position of the next {@code sep} outside quotes in [from, to), or {@code to}. */
+    static int nextSeparator(ByteBuffer in, int from, int to, char sep) {
+        boolean quoted = false;
+        for (int i = from; i < to; i++) {
+            byte b = in.get(i);
+            if (b == '"') quoted = !quoted;           // a doubled quote toggles twice
+            else if (b == sep && !quoted) return i;
+        }
+        return to;
+    }
+
+    /** Position of the newline ending the row that starts at {@code from}, or {@code to} if it ends later. */
+    static int nextRowEnd(ByteBuffer in, int from, int to) {
+        return nextSeparator(in, from, to, '\n');
+    }
+
+    /** Unquotes and decodes a field. Short ASCII symbols are shared through the cache. */
+    public String readText(ByteBuffer in, int from, int to, boolean symbol) {
+        int n, hash = 0;
+        boolean ascii = true;
+        if (from < to && in.get(from) == '"') {
+            n = unquote(in, from, to);
+            for (int i = 0; i < n; i++) {
+                if (scratch[i] < 0) ascii = false;
+                hash = 31 * hash + scratch[i];
+            }
+        } else {
+            if (to - from > scratch.length) scratch = new byte[Math.max(to - from, scratch.length * 2)];
+            n = 0;
+            for (int i = from; i < to; i++) {
+                byte b = in.get(i);
+                if (b < 0) ascii = false;
+                scratch[n++] = b;
+                hash = 31 * hash + b;
+            }
+        }
+        if (!symbol || !ascii || n > SYMBOL_MAX) return new String(scratch, 0, n, StandardCharsets.UTF_8);
+
+        int slot = (hash ^ (hash >>> 16)) & (symbols.length - 1);
+        String cached = symbols[slot];
+        if (cached != null && cached.length() == n) {
+            int i = 0;
+            while (i < n && cached.charAt(i) == scratch[i]) i++;
+            if (i == n) return cached;
+        }
+        String s = new String(scratch, 0, n, StandardCharsets.ISO_8859_1); // ASCII only here
+        symbols[slot] = s;
+        return s;
+    }
+
+    /**
+     * Copies the body of the quoted field in [from, to) into scratch with doubled
+     * quotes undone, and returns its length. Anything after the closing quote is
+     * kept as it is, as lenient readers do.
+     */
+    private int unquote(ByteBuffer in, int from, int to) {
+        if (to - from > scratch.length) scratch = new byte[Math.max(to - from, scratch.length * 2)];
+        int n = 0;
+        boolean quoted = true;
+        for (int i = from + 1; i < to; i++) {
+            byte b = in.get(i);
+            if (b == '"' && quoted) {
+                if (i + 1 < to && in.get(i + 1) == '"') i++;
+                else {
+                    quoted = false;
+                    continue;
+                }
+            }
+            scratch[n++] = b;
+        }
+        return n;
+    }
+
+    /**
+     * Parses a decimal number from bytes [from, to). Plain decimals with at most
+     * 18 significant digits are converted exactly without building a String;
+     * anything else (exponents, NaN, Infinity, long mantissas) goes through Double.parseDouble.
+     */
+    public static double parseDouble(ByteBuffer in, int from, int to) {
+        while (from < to && in.get(from) <= ' ') from++;
+        while (to > from && in.get(to - 1) <= ' ') to--;
+
+        int i = from;
+        boolean negative = false;
+        if (i < to && (in.get(i) == '-' || in.get(i) == '+')) negative = in.get(i++) == '-';
+
+        long mantissa = 0;
+        int digits = 0, significant = 0, fraction = 0;
+        boolean dot = false, plain = true;
+        for (; i < to; i++) {
+            byte b = in.get(i);
+            if (b >= '0' && b <= '9') {
+                digits++;
+                if (mantissa != 0 || b != '0') significant++;
+                mantissa = mantissa * 10 + (b - '0');
+                if (dot) fraction++;
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                plain = false;
+                break;
+            }
+        }
+
+        if (plain && digits > 0 && significant <= 18 && mantissa <= MAX_EXACT && fraction < EXACT_POW10.length) {
+            double v = fraction == 0 ? mantissa : mantissa / EXACT_POW10[fraction];
+            return negative ? -v : v;
+        }
+        return Double.parseDouble(raw(in, from, to));
+    }
+
+    private static String raw(ByteBuffer in, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        in.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
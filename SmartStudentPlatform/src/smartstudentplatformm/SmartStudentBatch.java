@@ -0,0 +1,253 @@
+package smartstudentplatformm;
+
+import smartstudentplatform.core.DuplicatePolicy;
+import smartstudentplatform.core.RosterDiff;
+import smartstudentplatform.core.RosterSnapshot;
+import smartstudentplatform.core.ShardedStudentManager;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.load.LoadHarness;
+import smartstudentplatform.load.Workload;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.server.QueryServer;
+import smartstudentplatform.util.Algorithms;
+import smartstudentplatform.util.ExternalSorter;
+import smartstudentplatform.util.FileManager;
+import smartstudentplatform.util.FolderIngestor;
+import smartstudentplatform.util.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Headless command-line entry point for scheduled jobs.
+ *
+ * Runs a pipeline of steps against one StudentManager without touching Swing,
+ * printing one JSON object per step with its timing, e.g.
+ *
+ *   java -cp SmartStudentPlatform.jar smartstudentplatformm.SmartStudentBatch \
+ *        load roster.csv sort cgpa top cgpa save sorted.csv
+ *
+ * Steps:
+ *   load FILE                 load a saved roster (FileManager format)
+ *   load-lazy FILE            same, parsing grade lists only when used
+ *   import FILE [POLICY]      ID,Name,CGPA[,Grades] CSV; POLICY is skip, replace or merge
+ *   sort name|cgpa|id         O(n log n) sort with the Algorithms orderings
+ *   average COURSE            class average for a course
+ *   top cgpa|avg              top performer
+ *   save FILE                 save the roster (FileManager format)
+ *   export FILE               export ID,Name,CGPA CSV
+ *   serve PORT [HOST]         serve the roster read-only over HTTP until killed (see QueryServer);
+ *                             on loopback only unless HOST is given, e.g. 0.0.0.0 for all interfaces
+ *   xsort IN OUT name|cgpa|id sort a saved roster file to another without loading it (see ExternalSorter)
+ *   generate SPEC             replace the roster with a seeded synthetic one (see Workload for SPEC)
+ *   import-dir DIR POLICY     load every *.csv in DIR (FileManager format) in parallel into one roster;
+ *                             POLICY replace (last modified file wins) or merge (union of grades)
+ *   ingest DIR                apply rows appended to DIR's CSV files since the last run (see FolderIngestor);
+ *                             the folder's checkpoint only advances at a later save
+ *   diff FILE                 compare the roster with a saved roster by Merkle digest (see RosterDiff)
+ *   sync FILE                 same, then patch the roster to match the file, touching only the differences
+ *   stress SPEC               run a mixed concurrent workload on the roster (synthetic if empty) and
+ *                             report throughput, latency, allocation and GC (see LoadHarness)
+ *
+ * The exit code is 0 on success, 1 if a step failed and 2 on bad usage.
+ */
+public class SmartStudentBatch {
+
+    /** One pipeline step; result fields are appended to the step's JSON line. */
+    private interface Step {
+        void run(StudentManager manager, String[] args, StringBuilder result) throws Exception;
+    }
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true"); // no display needed, no AWT startup
+        System.exit(run(args));
+    }
+
+    /** Runs the pipeline described by {@code args}; returns the process exit code. */
+    public static int run(String[] args) {
+        if (args.length == 0 || args[0].equals("--help")) {
+            System.err.println("usage: SmartStudentBatch STEP [ARGS] [STEP [ARGS]...]");
+            System.err.println("steps: load FILE | load-lazy FILE | import FILE [skip|replace|merge] | sort name|cgpa|id");
+            System.err.println("       average COURSE | top cgpa|avg | save FILE | export FILE | serve PORT [HOST]");
+            System.err.println("       xsort IN OUT name|cgpa|id | generate SPEC | stress SPEC | ingest DIR");
+            System.err.println("       import-dir DIR skip|replace|merge | diff FILE | sync FILE");
+            System.err.println("SPEC: e.g. students=100000,threads=4,seconds=30,mix=lookup:70/grade:20/sort:1 (see Workload)");
+            return 2;
+        }
+
+        StudentManager manager = new StudentManager();
+        List<FolderIngestor> unsaved = new ArrayList<>(); // ingests whose checkpoint waits for a save
+        long pipelineStart = System.nanoTime();
+        int i = 0;
+        while (i < args.length) {
+            String name = args[i++];
+            int arity = arity(name);
+            if (arity < 0) {
+                System.err.println("Unknown step: " + name);
+                return 2;
+            }
+            List<String> stepArgs = new ArrayList<>();
+            while (stepArgs.size() < arity && i < args.length) stepArgs.add(args[i++]);
+            // import takes an optional policy, serve an optional address
+            if ((name.equals("import") || name.equals("serve")) && i < args.length && arity(args[i]) < 0) {
+                stepArgs.add(args[i++]);
+            }
+            if (stepArgs.size() < arity) {
+                System.err.println("Step " + name + " needs " + arity + " argument(s)");
+                return 2;
+            }
+
+            StringBuilder result = new StringBuilder();
+            long start = System.nanoTime();
+            try {
+                step(name, unsaved).run(manager, stepArgs.toArray(new String[0]), result);
+            } catch (Exception e) {
+                System.out.println(json(name, stepArgs, start, manager.size(),
+                        ",\"error\":" + Json.quote(String.valueOf(e.getMessage()))));
+                return 1;
+            }
+            System.out.println(json(name, stepArgs, start, manager.size(), result.toString()));
+        }
+        if (!unsaved.isEmpty()) {
+            System.err.println("Ingested rows were not saved; they will be ingested again (add a save step)");
+        }
+        System.out.println(json("total", List.of(), pipelineStart, manager.size(), ""));
+        return 0;
+    }
+
+    private static int arity(String step) {
+        switch (step) {
+            case "load": case "load-lazy": case "import": case "sort":
+            case "average": case "top": case "save": case "export": case "serve":
+            case "generate": case "stress": case "ingest": case "diff": case "sync":
+                return 1;
+            case "import-dir":
+                return 2;
+            case "xsort":
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    private static Step step(String name, List<FolderIngestor> unsaved) {
+        switch (name) {
+            case "load":
+                return (m, a, r) -> FileManager.loadAllData(m, new File(a[0]), false);
+            case "load-lazy":
+                return (m, a, r) -> FileManager.loadAllData(m, new File(a[0]), true);
+            case "import":
+                return (m, a, r) -> m.loadFromCSV(new File(a[0]),
+                        a.length > 1 ? DuplicatePolicy.valueOf(a[1].toUpperCase(Locale.ROOT)) : DuplicatePolicy.SKIP);
+            case "sort":
+                return (m, a, r) -> m.sort(order(a[0]));
+            case "average":
+                return (m, a, r) -> r.append(",\"average\":").append(Json.number(m.classAverage(a[0])));
+            case "top":
+                return (m, a, r) -> {
+                    Optional<Student> top = a[0].equals("avg") ? m.topPerformerByAvgScore() : m.topPerformerByCgpa();
+                    r.append(",\"top\":").append(top.map(s -> Json.quote(s.getId())).orElse("null"));
+                };
+            case "save":
+                return (m, a, r) -> {
+                    FileManager.saveAllData(m, new File(a[0]));
+                    for (FolderIngestor ingestor : unsaved) ingestor.commitCheckpoint(); // now on disk
+                    unsaved.clear();
+                };
+            case "export":
+                return (m, a, r) -> m.saveToCSV(new File(a[0]));
+            case "serve":
+                return (m, a, r) -> {
+                    int port = Integer.parseInt(a[0]);
+                    RosterSnapshot snapshot = m.snapshot();
+                    QueryServer server = a.length > 1
+                            ? new QueryServer(new InetSocketAddress(a[1], port), () -> snapshot)
+                            : new QueryServer(port, snapshot);
+                    server.start();
+                    System.out.println("{\"step\":\"serve\",\"host\":" + Json.quote(server.getAddress().getHostString())
+                            + ",\"port\":" + server.getPort() + "}");
+                    Thread.currentThread().join(); // serve until the process is stopped
+                };
+            case "xsort":
+                return (m, a, r) -> r.append(",\"rows\":")
+                        .append(ExternalSorter.sort(new File(a[0]), new File(a[1]), order(a[2])));
+            case "generate":
+                return (m, a, r) -> {
+                    Workload w = Workload.parse(a[0]);
+                    m.replaceAll(w.generator().students(w.getStudents()), DuplicatePolicy.REPLACE);
+                };
+            case "import-dir":
+                return (m, a, r) -> {
+                    File[] found = new File(a[0]).listFiles((d, n) -> n.toLowerCase(Locale.ROOT).endsWith(".csv"));
+                    if (found == null) throw new IOException("Not a folder: " + a[0]);
+                    List<File> files = new ArrayList<>(Arrays.asList(found));
+                    files.sort(Comparator.comparingLong(File::lastModified).thenComparing(File::getName));
+                    DuplicatePolicy policy = DuplicatePolicy.valueOf(a[1].toUpperCase(Locale.ROOT));
+                    int duplicates = FileManager.loadAllData(m, files, policy);
+                    r.append(",\"files\":").append(files.size()).append(",\"duplicateRows\":").append(duplicates);
+                };
+            case "ingest":
+                return (m, a, r) -> {
+                    FolderIngestor ingestor = new FolderIngestor(Paths.get(a[0]), m, Runnable::run);
+                    ingestor.scanAll();
+                    unsaved.add(ingestor);
+                    r.append(",\"applied\":").append(ingestor.getAppliedRows())
+                            .append(",\"rejected\":").append(ingestor.getRejectedRows())
+                            .append(",\"waiting\":").append(ingestor.getWaitingRows());
+                };
+            case "diff":
+            case "sync":
+                return (m, a, r) -> {
+                    RosterDiff diff = RosterDiff.between(m.digest(), FileManager.digest(new File(a[0])));
+                    if (name.equals("sync")) diff.applyTo(m);
+                    r.append(",\"added\":").append(diff.getAdded().size())
+                            .append(",\"removed\":").append(diff.getRemoved().size())
+                            .append(",\"changed\":").append(diff.getChanged().size())
+                            .append(",\"bucketsCompared\":").append(diff.getBucketsCompared());
+                };
+            case "stress":
+                return (m, a, r) -> {
+                    Workload w = Workload.parse(a[0]);
+                    ShardedStudentManager sharded;
+                    if (m.size() == 0) {
+                        sharded = LoadHarness.populate(w);
+                    } else {
+                        sharded = new ShardedStudentManager();
+                        sharded.addAll(m.getAll(), DuplicatePolicy.REPLACE); // work on the loaded roster
+                    }
+                    r.append(",\"report\":").append(new LoadHarness(sharded, w).run().toJson());
+                };
+            default:
+                throw new IllegalArgumentException("Unknown step: " + name);
+        }
+    }
+
+    private static Comparator<Student> order(String key) {
+        switch (key) {
+            case "name": return Algorithms.BY_NAME;
+            case "cgpa": return Algorithms.BY_CGPA_DESC;
+            case "id": return Algorithms.BY_ID;
+            default: throw new IllegalArgumentException("Sort key must be name, cgpa or id");
+        }
+    }
+
+    /* ---------- Output ---------- */
+    private static String json(String step, List<String> args, long startNanos, int students, String extra) {
+        StringBuilder sb = new StringBuilder("{\"step\":").append(Json.quote(step)).append(",\"args\":[");
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(Json.quote(args.get(i)));
+        }
+        sb.append("],\"ms\":").append(Json.millis(System.nanoTime() - startNanos));
+        sb.append(",\"students\":").append(students).append(extra).append('}');
+        return sb.toString();
+    }
+}
@@ -1,13 +1,28 @@
 package smartstudentplatformm;
 
 import javax.swing.UIManager;
+import java.nio.file.Paths;
+import smartstudentplatform.ui.EdtMonitor;
 import smartstudentplatform.ui.MainFrame;
 
 public class SmartStudentPlatform {
     public static void main(String[] args) {
+        // any arguments mean a headless batch run (see SmartStudentBatch)
+        if (args.length > 0) {
+            SmartStudentBatch.main(args);
+            return;
+        }
+
         // optional: use system look & feel
         try { UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName()); } catch (Exception ignored) {}
 
+        // record UI freezes to JFR and ~/.smartstudent/edt-stalls.log, not the folder the app was started from;
+        // -Dsmartstudent.edtStallLog=PATH moves the log (empty: JFR only), -Dsmartstudent.edtStallMillis=0 turns this off
+        long stallMillis = Long.getLong("smartstudent.edtStallMillis", 250);
+        String stallLog = System.getProperty("smartstudent.edtStallLog",
+                Paths.get(System.getProperty("user.home"), ".smartstudent", "edt-stalls.log").toString());
+        if (stallMillis > 0) new EdtMonitor(stallMillis, stallLog.isEmpty() ? null : Paths.get(stallLog)).start();
+
         javax.swing.SwingUtilities.invokeLater(() -> new MainFrame().setVisible(true));
     }
 }
@@ -0,0 +1,112 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class CourseIndexTest {
+    private static final Course CS = new Course("CS101", "Intro", 3);
+    private static final Course MA = new Course("MA101", "Calc", 3);
+
+    /** The answer a roster scan would give, lowest score first. */
+    private static List<String> scan(StudentManager m, String course, double from, double to) {
+        List<Student> found = new ArrayList<>();
+        for (Student s : m.getAll()) {
+            Double score = s.getGrades().get(course);
+            if (score != null && score >= from && score < to) found.add(s);
+        }
+        found.sort(Comparator.comparingDouble(s -> s.getGrades().get(course)));
+        List<String> ids = new ArrayList<>();
+        for (Student s : found) ids.add(s.getId());
+        return ids;
+    }
+
+    private static List<String> ids(List<Student> students) {
+        List<String> ids = new ArrayList<>();
+        for (Student s : students) ids.add(s.getId());
+        return ids;
+    }
+
+    private static void assertMatchesScan(StudentManager m) {
+        for (String course : List.of("CS101", "MA101")) {
+            for (double t : new double[]{0, 40, 50, 50.5, 100.1}) {
+                List<String> want = scan(m, course, Double.NEGATIVE_INFINITY, t);
+                assertEquals(new HashSet<>(want), new HashSet<>(ids(m.studentsScoringBelow(course, t))));
+                assertEquals(want.size(), m.countScoringBelow(course, t));
+            }
+            assertEquals(scan(m, course, 40, Math.nextUp(60.0)).size(), m.countScoringBetween(course, 40, 60));
+            assertEquals(scan(m, course, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY).size(),
+                    m.enrolledCount(course));
+        }
+    }
+
+    @Test
+    public void staysInStepWithChanges() {
+        for (boolean versioned : new boolean[]{false, true}) {
+            StudentManager m = new StudentManager(versioned);
+            Random random = new Random(7);
+            for (int i = 0; i < 300; i++) {
+                Student s = new Student("S" + i, "N" + i, 3.0);
+                if (i % 2 == 0) s.addGrade("CS101", "Intro", random.nextInt(101));
+                m.addStudent(s);
+            }
+            assertMatchesScan(m); // builds the index
+
+            for (int i = 0; i < 500; i++) {
+                String id = "S" + random.nextInt(320);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        if (m.getById(id) != null) m.addResult(id, random.nextBoolean() ? CS : MA, random.nextInt(101));
+                        break;
+                    case 1:
+                        m.removeStudent(id);
+                        break;
+                    case 2:
+                        if (m.getById(id) == null) m.addStudent(new Student(id, "New", 2.0));
+                        break;
+                    default:
+                        Student replacement = new Student(id, "Replaced", 4.0);
+                        replacement.addGrade("MA101", "Calc", random.nextInt(101));
+                        m.addStudent(replacement, DuplicatePolicy.REPLACE);
+                }
+            }
+            assertMatchesScan(m);
+        }
+    }
+
+    @Test
+    public void rangesAreOrderedByScoreAndInclusiveOfMax() {
+        StudentManager m = new StudentManager();
+        int[] scores = {70, 40, 55, 40, 90};
+        for (int i = 0; i < scores.length; i++) {
+            m.addStudent(new Student("S" + i, "N", 3.0));
+            m.addResult("S" + i, CS, scores[i]);
+        }
+        assertEquals(List.of("S1", "S3", "S2"), ids(m.studentsScoringBelow("CS101", 70)));
+        assertEquals(List.of("S2", "S0"), ids(m.studentsScoringBetween("CS101", 50, 70)));
+        assertEquals(Set.of("CS101"), m.courseCodes());
+        assertTrue(m.enrolledIn("XX999").isEmpty());
+
+        m.addResult("S4", CS, 10); // a rescore moves the student
+        assertEquals("S4", m.studentsScoringBelow("CS101", 100).get(0).getId());
+        assertEquals(5, m.enrolledCount("CS101"));
+    }
+
+    @Test
+    public void undoShowsInQueries() {
+        StudentManager m = new StudentManager(true);
+        m.addStudent(new Student("S1", "N", 3.0));
+        m.addResult("S1", CS, 80);
+        assertEquals(1, m.enrolledCount("CS101"));
+        m.addResult("S1", CS, 30);
+        assertEquals(1, m.countScoringBelow("CS101", 50));
+        m.undo();
+        assertEquals(0, m.countScoringBelow("CS101", 50));
+        m.undo();
+        assertEquals(0, m.enrolledCount("CS101"));
+    }
+}
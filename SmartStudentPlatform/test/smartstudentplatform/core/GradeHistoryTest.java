@@ -0,0 +1,127 @@
+package smartstudentplatform.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.model.Course;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GradeHistoryTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static GradeHistory sample() {
+        GradeHistory h = new GradeHistory();
+        h.recordCgpa("2023-1", "S1", 3.0);
+        h.recordGrade("2023-1", "S1", "CS101", 45);
+        h.recordGrade("2023-1", "S2", "CS101", 90);
+        h.recordCgpa("2023-2", "S1", 3.0);              // unchanged, not recorded
+        h.recordGrade("2023-2", "S1", "MA101", 70);
+        h.recordCgpa("2024-1", "S1", 3.4);
+        h.recordGrade("2024-1", "S1", "CS101", 65.5);   // retake
+        return h;
+    }
+
+    private static void assertSampleQueries(GradeHistory h) {
+        assertEquals(List.of("2023-1", "2023-2", "2024-1"), h.terms());
+        assertEquals(Map.of("CS101", 45.0, "MA101", 70.0), h.gradesAsOf("S1", "2023-2"));
+        assertEquals(Map.of("CS101", 65.5, "MA101", 70.0), h.gradesAsOf("S1", "2099"));
+        assertEquals(3.0, h.cgpaAsOf("S1", "2023-2").getAsDouble(), 0);
+        assertFalse(h.cgpaAsOf("S1", "2022").isPresent());
+        assertEquals(List.of("2023-1", "2024-1"), new ArrayList<>(h.cgpaTrajectory("S1").keySet()));
+        assertEquals(20.5, h.retakeImprovement("S1", "CS101").getAsDouble(), 1e-9);
+    }
+
+    @Test
+    public void asOfAndTrendQueries() {
+        GradeHistory h = sample();
+        assertSampleQueries(h);
+        assertFalse(h.retakeImprovement("S2", "CS101").isPresent());
+    }
+
+    @Test
+    public void idsIgnoreCase() {
+        GradeHistory h = sample();
+        h.recordGrade("2024-1", "s1", "PH101", 50);
+        assertEquals(50.0, h.gradesAsOf("S1", "2024-1").get("PH101"), 0);
+        assertEquals(3.4, h.cgpaAsOf("s1", "2024-1").getAsDouble(), 0);
+    }
+
+    @Test
+    public void savedTermsAreDeltaEncodedAndReadBack() throws IOException {
+        File dir = tmp.newFolder();
+        sample().save(dir);
+        GradeHistory reopened = GradeHistory.open(dir);
+        assertSampleQueries(reopened);
+
+        // appending to a saved term, then saving again
+        reopened.recordGrade("2024-1", "S2", "CS101", 95);
+        assertEquals(95.0, reopened.gradesAsOf("S2", "2024-1").get("CS101"), 0);
+        reopened.save(dir);
+        GradeHistory again = GradeHistory.open(dir);
+        assertSampleQueries(again);
+        assertEquals(5.0, again.retakeImprovement("S2", "CS101").getAsDouble(), 1e-9);
+    }
+
+    @Test
+    public void earlierTermInsertedIntoReopenedHistory() throws IOException {
+        File dir = tmp.newFolder();
+        GradeHistory h = new GradeHistory();
+        h.recordGrade("2023-1", "S1", "CS101", 50);
+        h.recordGrade("2023-3", "S1", "CS101", 90);
+        h.save(dir);
+
+        GradeHistory reopened = GradeHistory.open(dir);
+        reopened.recordGrade("2023-2", "S1", "MA101", 70); // lands between the saved terms
+        reopened.save(dir);
+
+        GradeHistory again = GradeHistory.open(dir);
+        assertEquals(List.of("2023-1", "2023-2", "2023-3"), again.terms());
+        assertEquals(Map.of("CS101", 50.0), again.gradesAsOf("S1", "2023-1"));
+        assertEquals(Map.of("CS101", 50.0, "MA101", 70.0), again.gradesAsOf("S1", "2023-2"));
+        assertEquals(Map.of("CS101", 90.0, "MA101", 70.0), again.gradesAsOf("S1", "2023-3"));
+        assertEquals(40.0, again.retakeImprovement("S1", "CS101").getAsDouble(), 1e-9);
+    }
+
+    @Test
+    public void termFilesAreNamedAfterTheirLabels() {
+        File dir = new File("d");
+        assertEquals("term-2023-1.bin", GradeHistory.termFile(dir, "2023-1").getName());
+        assertNotEquals(GradeHistory.termFile(dir, "2023-Fall"), GradeHistory.termFile(dir, "2023-fall"));
+        assertEquals("term-2023_002fq1.bin", GradeHistory.termFile(dir, "2023/q1").getName());
+    }
+
+    @Test
+    public void largeTermIsCompactOnDisk() throws IOException {
+        GradeHistory h = new GradeHistory();
+        Random r = new Random(1);
+        for (int s = 0; s < 2000; s++) {
+            for (int c = 0; c < 8; c++) h.recordGrade("2024-1", "S" + s, "C" + c, r.nextInt(41) + 50);
+        }
+        File dir = tmp.newFolder();
+        h.save(dir);
+        long bytes = new File(dir, "term-2024-1.bin").length();
+        assertTrue("term file has " + bytes + " bytes", bytes < 2000 * 8 * 4);
+        GradeHistory reopened = GradeHistory.open(dir);
+        assertEquals(h.gradesAsOf("S1999", "2024-1"), reopened.gradesAsOf("S1999", "2024-1"));
+    }
+
+    @Test
+    public void managerRecordsUnderTheStoredId() {
+        StudentManager m = new StudentManager();
+        GradeHistory h = new GradeHistory();
+        m.setHistory(h);
+        m.setCurrentTerm("2024-1");
+        m.addStudent("S001", "Ada", 3.0);
+        m.updateStudentCgpa("s001", 3.5);
+        m.addResult("s001", new Course("CS101", "Intro", 3), 80);
+        assertEquals(3.5, h.cgpaAsOf("S001", "2024-1").getAsDouble(), 0);
+        assertEquals(Map.of("CS101", 80.0), h.gradesAsOf("S001", "2024-1"));
+        assertEquals(Map.of("2024-1", 3.5), h.cgpaTrajectory("s001"));
+    }
+}
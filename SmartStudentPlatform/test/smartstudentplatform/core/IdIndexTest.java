@@ -0,0 +1,79 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.model.Student;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IdIndexTest {
+    private final IdCodec codec = IdCodec.STANDARD;
+
+    @Test
+    public void codecRoundTripsStandardIdsIgnoringCase() {
+        for (String id : new String[]{"COS2021000042", "A19000", "ABCD2155999999999", "mth2015007"}) {
+            long key = codec.pack(id);
+            assertTrue(id, key >= 0);
+            assertEquals(id.toUpperCase(), codec.unpack(key));
+            assertEquals(key, codec.pack(id.toLowerCase()));
+        }
+        assertNotEquals(codec.pack("COS2021000042"), codec.pack("COS202142"));      // leading zeros count
+    }
+
+    @Test
+    public void codecLeavesOtherIdsUnpacked() {
+        for (String id : new String[]{"S1", "ABCDE2021001", "COS1899001", "COS2156001", "COS2021",
+                "COS20210000000001", "CO52021001", "COS2021-01", "ÇOS2021001", "2021000001"}) {
+            assertEquals(id, IdCodec.UNPACKED, codec.pack(id));
+        }
+    }
+
+    @Test
+    public void matchesAMapUnderRandomChanges() {
+        IdIndex index = new IdIndex(codec);
+        Map<String, Student> expected = new HashMap<>();
+        Random random = new Random(3);
+        for (int step = 0; step < 200_000; step++) {
+            int n = random.nextInt(5_000);
+            // a mix of packable IDs and others, in random case
+            String id = n % 3 == 0 ? "guest-" + n : "COS20" + (10 + n % 10) + String.format("%06d", n);
+            if (random.nextBoolean()) id = id.toLowerCase();
+            String key = IdCodec.normalize(id);
+            switch (random.nextInt(3)) {
+                case 0: {
+                    Student s = new Student(id, "N", 3.0);
+                    assertSame(expected.put(key, s), index.put(s));
+                    break;
+                }
+                case 1:
+                    assertSame(expected.remove(key), index.remove(id));
+                    break;
+                default:
+                    assertSame(expected.get(key), index.get(id));
+            }
+            assertEquals(expected.size(), index.size());
+        }
+        for (Map.Entry<String, Student> e : expected.entrySet()) assertSame(e.getValue(), index.get(e.getKey()));
+    }
+
+    @Test
+    public void managerLooksUpIgnoringCase() {
+        StudentManager m = new StudentManager();
+        m.addStudent("cos2021000042", "Ada", 3.0);
+        m.addStudent("Guest-7", "Bola", 3.0);
+        assertEquals("Ada", m.getById("COS2021000042").getName());
+        assertEquals("Bola", m.getById("GUEST-7").getName());
+        assertNull(m.getById("COS2021000043"));
+        try {
+            m.addStudent("COS2021000042", "Again", 1.0);
+            fail("duplicate ID accepted");
+        } catch (IllegalArgumentException expected) {
+            // IDs differing only in case are the same ID
+        }
+        m.removeStudent("guest-7");
+        assertEquals(1, m.size());
+    }
+}
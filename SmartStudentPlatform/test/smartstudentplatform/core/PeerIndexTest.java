@@ -0,0 +1,62 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.load.RosterGenerator;
+import smartstudentplatform.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PeerIndexTest {
+    private static List<String> ids(List<Student> students) {
+        List<String> ids = new ArrayList<>();
+        for (Student s : students) ids.add(s.getId());
+        return ids;
+    }
+
+    @Test
+    public void smallRostersAreAnsweredExactly() {
+        StudentManager m = new StudentManager();
+        int[][] scores = {{90, 80}, {88, 79}, {20, 30}, {91, 81}};
+        for (int i = 0; i < scores.length; i++) {
+            Student s = new Student("S" + i, "N", 3.0);
+            s.addGrade("CS101", "Intro", scores[i][0]);
+            s.addGrade("MA101", "Calc", scores[i][1]);
+            m.addStudent(s);
+        }
+        m.addStudent(new Student("S9", "No grades", 2.0));
+        assertEquals(List.of("S3", "S1", "S2"), ids(m.similarStudents("S0", 5)));
+        assertTrue(m.similarStudents("S9", 5).isEmpty());
+
+        m.removeStudent("S3"); // kept up to date after the first query
+        assertEquals("S1", m.similarStudents("S0", 1).get(0).getId());
+    }
+
+    @Test
+    public void growingAndShrinkingIndexMatchesAFreshBuild() {
+        RosterGenerator gen = new RosterGenerator(11, 6, 200);
+        List<Student> roster = gen.students(70_000);
+        PeerIndex grown = PeerIndex.build(new ArrayList<>());
+        int initialBits = grown.bits();
+        for (Student s : roster) grown.add(s);
+
+        PeerIndex fresh = PeerIndex.build(roster);
+        assertTrue(grown.bits() > initialBits);
+        assertEquals(fresh.bits(), grown.bits());
+        for (int i = 0; i < 20; i++) {
+            Student query = roster.get(i * 997);
+            assertEquals(ids(fresh.nearest(query, 10)), ids(grown.nearest(query, 10)));
+        }
+
+        for (Student s : roster.subList(10_000, roster.size())) grown.remove(s);
+        List<Student> rest = roster.subList(0, 10_000);
+        PeerIndex small = PeerIndex.build(rest);
+        assertEquals(small.bits(), grown.bits());
+        for (int i = 0; i < 20; i++) {
+            Student query = rest.get(i * 499);
+            assertEquals(ids(small.nearest(query, 10)), ids(grown.nearest(query, 10)));
+        }
+    }
+}
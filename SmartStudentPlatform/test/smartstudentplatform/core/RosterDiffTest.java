@@ -0,0 +1,103 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RosterDiffTest {
+
+    private static StudentManager roster(boolean versioned, int n) {
+        StudentManager m = new StudentManager(versioned);
+        for (int i = 0; i < n; i++) {
+            Student s = new Student("S" + i, "Name " + i, 3.0);
+            s.addGrade("CS101", "Intro", 50 + i % 50);
+            m.addStudent(s);
+        }
+        return m;
+    }
+
+    @Test
+    public void sameContentIsEmpty() {
+        StudentManager a = roster(false, 500), b = roster(true, 500);
+        b.sortByNameQuick(); // order does not matter
+        RosterDiff diff = a.diffTo(b);
+        assertEquals(a.digest().rootHash(), b.digest().rootHash());
+        assertTrue(diff.isEmpty());
+        assertEquals(0, diff.getBucketsCompared());
+    }
+
+    @Test
+    public void findsAddedRemovedAndChanged() {
+        StudentManager ours = roster(false, 2000), theirs = roster(false, 2000);
+        theirs.removeStudent("S5");
+        theirs.addStudent(new Student("S9999", "New", 2.5));
+        theirs.updateStudentCgpa("S7", 4.0);
+        theirs.addResult("S8", new Course("CS101", "Intro to CS", 3), 99);
+        theirs.addResult("S8", new Course("MA101", "Calc", 3), 70);
+
+        RosterDiff diff = ours.diffTo(theirs);
+        assertEquals("1 added, 1 removed, 2 changed", diff.toString());
+        assertEquals("S9999", diff.getAdded().get(0).getId());
+        assertEquals("S5", diff.getRemoved().get(0).getId());
+        assertTrue(diff.getBucketsCompared() <= 4); // only the differing buckets are opened
+
+        RosterDiff.Change cgpa = diff.getChanged().get(0), grades = diff.getChanged().get(1);
+        assertEquals("S7", cgpa.getAfter().getId());
+        assertTrue(cgpa.cgpaChanged());
+        assertFalse(cgpa.nameChanged());
+        assertTrue(cgpa.gradeChanges().isEmpty());
+
+        List<RosterDiff.GradeChange> changes = grades.gradeChanges();
+        assertEquals(2, changes.size());
+        assertEquals("CS101", changes.get(0).getCourseCode());
+        assertEquals(58.0, changes.get(0).getBefore(), 0);
+        assertEquals(99.0, changes.get(0).getAfter(), 0);
+        assertEquals("MA101", changes.get(1).getCourseCode());
+        assertNull(changes.get(1).getBefore());
+    }
+
+    @Test
+    public void applyToMakesRostersEqual() {
+        StudentManager ours = roster(true, 1000), theirs = roster(false, 1000);
+        theirs.removeStudent("S1");
+        theirs.addStudent(new Student("s1000", "Late", 3.3));
+        theirs.addResult("S2", new Course("PH101", "Physics", 3), 65);
+
+        ours.diffTo(theirs).applyTo(ours);
+        assertEquals(theirs.digest().rootHash(), ours.digest().rootHash());
+        assertTrue(ours.diffTo(theirs).isEmpty());
+        assertTrue(ours.undo()); // one undo step
+        assertEquals(1000, ours.size());
+        assertNotNull(ours.getById("S1"));
+    }
+
+    @Test
+    public void changeKeepsBeforeAsOfTheDiff() {
+        StudentManager ours = roster(false, 10), theirs = roster(false, 10);
+        theirs.updateStudentCgpa("S3", 4.5);
+
+        RosterDiff.Change change = ours.diffTo(theirs).getChanged().get(0);
+        ours.addResult("S3", new Course("MA101", "Calc", 3), 40); // plain mode edits the live student
+        ours.updateStudentCgpa("S3", 1.0);
+
+        assertEquals(3.0, change.getBefore().getCgpa(), 0);
+        assertEquals(Map.of("CS101", 53.0), change.getBefore().getGrades());
+        assertTrue(change.cgpaChanged());
+        assertTrue(change.gradeChanges().isEmpty());
+    }
+
+    @Test
+    public void digestOfRepeatedIdKeepsLaterStudent() {
+        Student first = new Student("S1", "First", 2.0), later = new Student("s1", "Later", 3.0);
+        RosterDigest repeated = RosterDigest.of(Arrays.asList(first, later));
+        RosterDigest single = RosterDigest.of(Arrays.asList(later));
+        assertEquals(1, repeated.size());
+        assertEquals(single.rootHash(), repeated.rootHash());
+    }
+}
@@ -0,0 +1,89 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.Algorithms;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class ShardedStudentManagerTest {
+
+    private static ShardedStudentManager roster(int n) {
+        ShardedStudentManager m = new ShardedStudentManager(4);
+        Random r = new Random(7);
+        for (int i = 0; i < n; i++) m.addStudent("S" + i, "Name" + r.nextInt(n), r.nextInt(500) / 100.0);
+        return m;
+    }
+
+    @Test
+    public void pointOperationsIgnoreIdCase() {
+        ShardedStudentManager m = roster(100);
+        m.addResult("s42", new Course("CS101", "Intro", 3), 75);
+        assertEquals(75.0, m.getById("S42").getGrades().get("CS101"), 0);
+        m.removeStudent("s42");
+        assertNull(m.getById("S42"));
+        assertEquals(99, m.size());
+    }
+
+    @Test
+    public void mergedSortMatchesSingleSort() {
+        ShardedStudentManager m = roster(5000);
+        List<Student> expected = new ArrayList<>(m.getAll());
+        expected.sort(Algorithms.BY_NAME);
+        List<Student> merged = m.sortedByName();
+        assertEquals(expected.size(), merged.size());
+        for (int i = 0; i < merged.size(); i++) assertEquals(expected.get(i).getName(), merged.get(i).getName());
+    }
+
+    @Test
+    public void classAverageCombinesPartialSums() {
+        ShardedStudentManager m = new ShardedStudentManager(3);
+        for (int i = 0; i < 10; i++) {
+            m.addStudent("S" + i, "N", 3);
+            m.addResult("S" + i, new Course("CS101", "Intro", 3), i * 10);
+        }
+        assertEquals(45.0, m.classAverage("CS101"), 1e-9);
+    }
+
+    @Test
+    public void sortWhileCgpasChange() throws InterruptedException {
+        ShardedStudentManager m = roster(20000);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            Random r = new Random(3);
+            while (!done.get()) m.updateStudentCgpa("S" + r.nextInt(20000), r.nextInt(500) / 100.0);
+        });
+        writer.start();
+        try {
+            for (int round = 0; round < 20; round++) {
+                List<Student> sorted = m.sortedByCgpaDesc(); // keys move meanwhile but not mid-sort
+                assertEquals(20000, sorted.size());
+                assertEquals(20000, new HashSet<>(sorted).size());
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+        List<Student> sorted = m.sortedByCgpaDesc();
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(sorted.get(i - 1).getCgpa() >= sorted.get(i).getCgpa());
+        }
+    }
+
+    @Test
+    public void sortReturnsTheLiveStudents() {
+        ShardedStudentManager m = roster(1000);
+        m.addResult("S7", new Course("CS101", "Intro", 3), 80);
+        Student s7 = m.getById("S7");
+        List<Student> byId = m.sortedById();
+        assertEquals(1000, byId.size());
+        assertTrue(byId.stream().anyMatch(s -> s == s7)); // no copies
+        for (int i = 1; i < byId.size(); i++) {
+            assertTrue(byId.get(i - 1).getId().compareToIgnoreCase(byId.get(i).getId()) < 0);
+        }
+    }
+}
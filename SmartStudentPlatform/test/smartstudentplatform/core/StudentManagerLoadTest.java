@@ -0,0 +1,110 @@
+package smartstudentplatform.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StudentManagerLoadTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File csv(String content) throws IOException {
+        File f = tmp.newFile();
+        Files.writeString(f.toPath(), content, StandardCharsets.UTF_8);
+        return f;
+    }
+
+    @Test
+    public void saveAndLoadRoundTripQuotedNames() throws IOException {
+        StudentManager m = new StudentManager();
+        m.addStudent("S1", "Doe, \"Jo\"", 3.5);
+        m.addStudent("S2", "Smith", 4.0);
+        File f = tmp.newFile();
+        m.saveToCSV(f);
+
+        StudentManager loaded = new StudentManager();
+        loaded.loadFromCSV(f);
+        assertEquals(2, loaded.size());
+        assertEquals("Doe, \"Jo\"", loaded.getById("S1").getName());
+    }
+
+    @Test
+    public void badRowKeepsCurrentRoster() throws IOException {
+        StudentManager m = new StudentManager();
+        m.addStudent("S1", "Ada", 3.0);
+        try {
+            m.loadFromCSV(csv("ID,Name,CGPA\nS2,Bo,4.0\nS3,Cy,not-a-number\n"));
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().startsWith("Line 3"));
+        }
+        assertEquals(1, m.size());
+        assertNotNull(m.getById("S1"));
+    }
+
+    @Test
+    public void duplicatePolicies() throws IOException {
+        File f = csv("ID,Name,CGPA,Grades\nS1,Ada,3.0,CS101:70.0:Intro\ns1,Ada B,3.5,MA101:80.0:Calc\nS2,Bo,2.0\n");
+
+        StudentManager skip = new StudentManager();
+        skip.loadFromCSV(f, DuplicatePolicy.SKIP);
+        assertEquals("Ada", skip.getById("S1").getName());
+
+        StudentManager replace = new StudentManager();
+        replace.loadFromCSV(f, DuplicatePolicy.REPLACE);
+        assertEquals(2, replace.size());
+        assertEquals("Ada B", replace.getById("S1").getName());
+        assertEquals("s1", replace.getAll().get(0).getId()); // keeps the ID's place in the order
+        assertNull(replace.getById("S1").getGrades().get("CS101"));
+
+        StudentManager merge = new StudentManager();
+        merge.loadFromCSV(f, DuplicatePolicy.MERGE);
+        Student s = merge.getById("S1");
+        assertEquals(3.5, s.getCgpa(), 0);
+        assertEquals(70.0, s.getGrades().get("CS101"), 0);
+        assertEquals(80.0, s.getGrades().get("MA101"), 0);
+    }
+
+    @Test
+    public void replaceAllKeepsFirstPositionAcrossRepeatedReplacements() {
+        StudentManager m = new StudentManager(true);
+        int duplicates = m.replaceAll(List.of(new Student("A1", "a", 1), new Student("B1", "b", 2),
+                new Student("a1", "a2", 1), new Student("A1", "a3", 1)), DuplicatePolicy.REPLACE);
+        assertEquals(2, duplicates);
+        assertEquals(2, m.size());
+        assertEquals("a3", m.getAll().get(0).getName());
+        assertEquals("a3", m.getById("a1").getName());
+        assertEquals("B1", m.getAll().get(1).getId());
+    }
+
+    @Test
+    public void replaceKeepsPlaceAcrossAddsSortsAndRemoves() {
+        StudentManager m = new StudentManager();
+        for (int i = 0; i < 5; i++) m.addStudent(new Student("S" + i, "n" + i, i));
+        m.addStudent(new Student("s1", "first", 1), DuplicatePolicy.REPLACE);
+        m.addStudent(new Student("S5", "n5", 5));
+        m.addStudent(new Student("S5", "added then replaced", 5), DuplicatePolicy.REPLACE);
+        assertEquals("first", m.getAll().get(1).getName());
+        assertEquals("added then replaced", m.getAll().get(5).getName());
+
+        m.sortByCgpaBubbleDesc();                // S5 S4 S3 S2 s1 S0
+        m.removeStudent("S4");                   // S5 S3 S2 s1 S0
+        m.addStudent(new Student("S1", "again", 1), DuplicatePolicy.REPLACE);
+        m.getAll().add(0, m.getAll().remove(4)); // reordered behind the manager's back: S0 S5 S3 S2 S1
+        m.addStudent(new Student("S2", "moved", 2), DuplicatePolicy.REPLACE);
+
+        assertEquals(5, m.size());
+        assertEquals("moved", m.getAll().get(3).getName());
+        assertEquals("again", m.getAll().get(4).getName());
+        assertSame(m.getAll().get(3), m.getById("s2"));
+    }
+}
@@ -0,0 +1,119 @@
+package smartstudentplatform.core;
+
+import org.junit.Test;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.Algorithms;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StudentManagerVersionTest {
+    private static final Course CS = new Course("CS101", "Intro", 3);
+
+    private static StudentManager roster() {
+        StudentManager m = new StudentManager(true);
+        m.addStudent("S3", "Chi", 2.5);
+        m.addStudent("S1", "Ada", 3.5);
+        m.addStudent("S2", "Bola", 4.0);
+        return m;
+    }
+
+    private static List<String> ids(StudentManager m) {
+        List<String> ids = new ArrayList<>();
+        for (Student s : m.getAll()) ids.add(s.getId());
+        return ids;
+    }
+
+    @Test
+    public void undoAndRedoStepThroughChanges() {
+        StudentManager m = roster();
+        m.updateStudentCgpa("S1", 4.5);
+        m.addResult("S1", CS, 70);
+        m.removeStudent("S2");
+
+        assertTrue(m.undo());
+        assertEquals(4.0, m.getById("S2").getCgpa(), 0);
+        assertTrue(m.undo());
+        assertTrue(m.getById("S1").getGrades().isEmpty());
+        assertTrue(m.undo());
+        assertEquals(3.5, m.getById("S1").getCgpa(), 0);
+
+        assertTrue(m.redo());
+        assertTrue(m.redo());
+        assertEquals(70.0, m.getById("S1").getGrades().get("CS101"), 0);
+        m.addStudent("S4", "Dayo", 3.0); // a new change drops the redo steps
+        assertFalse(m.canRedo());
+    }
+
+    @Test
+    public void binarySearchNeverCommits() {
+        StudentManager m = roster();
+        PersistentRoster before = m.version();
+
+        assertEquals("Ada", m.binarySearch("s1").getName());
+        assertNull(m.binarySearch("S9"));
+        assertSame(before, m.version());
+        assertEquals(List.of("S3", "S1", "S2"), ids(m)); // roster order untouched
+
+        m.addStudent("S0", "Zed", 1.0);                  // the sorted copy follows new versions
+        assertEquals("Zed", m.binarySearch("S0").getName());
+        m.undo();
+        assertNull(m.binarySearch("S0"));
+    }
+
+    @Test
+    public void plainManagerStillSortsForBinarySearch() {
+        StudentManager m = new StudentManager();
+        m.addStudent("S3", "Chi", 2.5);
+        m.addStudent("S1", "Ada", 3.5);
+        assertEquals("Ada", m.binarySearch("S1").getName());
+        assertEquals(List.of("S1", "S3"), ids(m));
+    }
+
+    @Test
+    public void olderVersionsAndForksAreUntouched() {
+        StudentManager m = roster();
+        PersistentRoster before = m.version();
+        Student s1 = before.get("S1");
+        m.addResult("S1", CS, 90);
+        assertTrue(s1.getGrades().isEmpty());               // changed through a copy
+        assertTrue(before.get("S1").getGrades().isEmpty());
+
+        StudentManager fork = m.fork();
+        fork.removeStudent("S1");
+        fork.sort(Algorithms.BY_NAME);
+        assertEquals(3, m.size());
+        assertEquals(2, fork.size());
+        assertTrue(fork.undo());
+        assertTrue(fork.undo());
+        assertFalse(fork.undo());   // only its own steps
+        assertEquals(3, fork.size());
+
+        m.restore(before);
+        assertTrue(m.getById("S1").getGrades().isEmpty());
+        assertTrue(m.undo());
+        assertEquals(90.0, m.getById("S1").getGrades().get("CS101"), 0);
+    }
+
+    @Test
+    public void batchIsOneStepAndLimitDropsOldest() {
+        StudentManager m = roster();
+        m.batch(() -> {
+            for (String id : List.of("S1", "S2", "S3")) m.addResult(id, CS, 50);
+        });
+        m.undo();
+        for (Student s : m.getAll()) assertTrue(s.getGrades().isEmpty());
+
+        m.setUndoLimit(2);
+        m.updateStudentCgpa("S1", 1.0);
+        m.updateStudentCgpa("S1", 2.0);
+        m.updateStudentCgpa("S1", 3.0);
+        assertTrue(m.undo());
+        assertTrue(m.undo());
+        assertFalse(m.undo());
+        assertEquals(1.0, m.getById("S1").getCgpa(), 0);
+    }
+}
@@ -0,0 +1,79 @@
+package smartstudentplatform.load;
+
+import org.junit.Test;
+import smartstudentplatform.core.ShardedStudentManager;
+import smartstudentplatform.model.Student;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class WorkloadTest {
+    @Test
+    public void specRoundTripsThroughToString() {
+        Workload w = Workload.parse("students=500, seed=7,threads=3,seconds=2,warmup=0,save=0,mix=lookup:3/sort:1");
+        assertEquals(500, w.getStudents());
+        assertEquals(7, w.getSeed());
+        assertEquals(0, w.getWeight(Workload.Operation.GRADE));
+        assertEquals(w.toString(), Workload.parse(w.toString()).toString());
+        assertEquals(new Workload().toString(), Workload.parse("").toString());
+    }
+
+    @Test
+    public void badSpecsAreRejected() {
+        for (String spec : new String[]{"students=0", "colour=blue", "students", "mix=lookup:0", "mix=fly:1",
+                "mix=lookup:-1/sort:2"}) {
+            try {
+                Workload.parse(spec);
+                fail("accepted " + spec);
+            } catch (IllegalArgumentException expected) {
+                // NumberFormatException included
+            }
+        }
+    }
+
+    @Test
+    public void pickFollowsTheMix() {
+        Workload w = Workload.parse("mix=lookup:3/grade:1");
+        SplittableRandom r = new SplittableRandom(1);
+        int lookups = 0;
+        for (int i = 0; i < 40_000; i++) {
+            Workload.Operation op = w.pick(r);
+            assertTrue(op == Workload.Operation.LOOKUP || op == Workload.Operation.GRADE);
+            if (op == Workload.Operation.LOOKUP) lookups++;
+        }
+        assertEquals(30_000, lookups, 600);
+    }
+
+    @Test
+    public void generatorIsRepeatableAndIndexed() {
+        RosterGenerator a = new RosterGenerator(42, 6, 50), b = new RosterGenerator(42, 6, 50);
+        List<Student> roster = a.students(1000);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < roster.size(); i++) {
+            Student s = roster.get(i), again = b.student(i);
+            assertEquals(s.toCSV(), again.toCSV());   // depends only on seed and index
+            assertEquals(s.getId(), a.id(i));
+            assertTrue(ids.add(s.getId()));
+            assertTrue(s.getCgpa() >= 0 && s.getCgpa() <= 5);
+            assertTrue(s.getGrades().size() >= 3 && s.getGrades().size() <= 9);
+            for (double score : s.getGrades().values()) assertTrue(score >= 0 && score <= 100);
+        }
+        assertNotEquals(roster.get(0).toCSV(), new RosterGenerator(43, 6, 50).student(0).toCSV());
+    }
+
+    @Test
+    public void shortRunCompletesWithoutErrors() throws Exception {
+        Workload w = Workload.parse("students=2000,courses=40,threads=2,seconds=1,warmup=0,save=0,"
+                + "mix=lookup:50/grade:20/update:10/sort:5/analytics:15");
+        ShardedStudentManager m = LoadHarness.populate(w);
+        assertEquals(2000, m.size());
+        LoadHarness.Report report = new LoadHarness(m, w).run();
+        assertTrue(report.operations() > 0);
+        assertEquals(0, report.errors());
+        assertTrue(report.toJson(), report.toJson().startsWith("{"));
+    }
+}
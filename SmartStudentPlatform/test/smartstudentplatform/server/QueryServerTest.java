@@ -0,0 +1,98 @@
+package smartstudentplatform.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import smartstudentplatform.core.RosterSnapshot;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Course;
+import smartstudentplatform.model.Student;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class QueryServerTest {
+    private final StudentManager manager = new StudentManager(true);
+    private final HttpClient client = HttpClient.newHttpClient();
+    private QueryServer server;
+
+    @Before
+    public void roster() {
+        Student s = new Student("S1", "Ada Obi", 4.5);
+        s.addGrade("CS101", "Intro", 80);
+        manager.addStudent(s);
+        manager.addStudent(new Student("S2", "Bola", 3.0));
+    }
+
+    @After
+    public void stop() {
+        if (server != null) server.stop();
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://" + server.getAddress().getHostString() + ":" + server.getPort() + path)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Counts how many snapshots are actually built. */
+    private Supplier<RosterSnapshot> counted(AtomicInteger builds) {
+        Supplier<RosterSnapshot> snapshot = manager.snapshotOnDemand();
+        return () -> {
+            builds.incrementAndGet();
+            return snapshot.get();
+        };
+    }
+
+    @Test
+    public void publishedSnapshotIsBuiltOnlyWhenRead() throws Exception {
+        AtomicInteger builds = new AtomicInteger();
+        server = new QueryServer(0, counted(builds));
+        server.start();
+        for (int i = 0; i < 50; i++) server.publish(counted(builds)); // e.g. one per table refresh
+        assertEquals(0, builds.get());
+
+        HttpResponse<String> r = get("/students/s1");
+        assertEquals(200, r.statusCode());
+        assertTrue(r.body(), r.body().contains("\"CS101\":80"));
+        get("/top?k=1");
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void snapshotOnDemandKeepsTheVersionItWasTakenFrom() throws Exception {
+        Supplier<RosterSnapshot> before = manager.snapshotOnDemand();
+        manager.removeStudent("S2");
+        manager.addResult("S1", new Course("MA101", "Calc", 3), 70);
+
+        RosterSnapshot snapshot = before.get();
+        assertEquals(2, snapshot.size());
+        assertNull(snapshot.get("S1").getGrades().get("MA101"));
+
+        server = new QueryServer(0, manager.snapshotOnDemand());
+        server.start();
+        assertEquals(404, get("/students/S2").statusCode());
+        assertTrue(get("/average?course=MA101").body().contains("\"average\":70"));
+    }
+
+    @Test
+    public void listensOnLoopbackUnlessToldOtherwise() throws Exception {
+        server = new QueryServer(0, manager.snapshotOnDemand());
+        assertTrue(server.getAddress().getAddress().isLoopbackAddress());
+        server.stop();
+
+        server = new QueryServer(new InetSocketAddress(0), manager.snapshotOnDemand());
+        assertTrue(server.getAddress().getAddress().isAnyLocalAddress());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void onDemandNeedsAVersionedManager() {
+        new StudentManager().snapshotOnDemand();
+    }
+}
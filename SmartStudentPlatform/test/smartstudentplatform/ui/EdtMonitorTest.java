@@ -0,0 +1,55 @@
+package smartstudentplatform.ui;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.awt.EventQueue;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class EdtMonitorTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    /** Stands in for a slow listener; busy rather than sleeping, like real work. */
+    private static void slowHandler(long millis) {
+        long end = System.nanoTime() + millis * 1_000_000;
+        double x = 0;
+        while (System.nanoTime() < end) x += Math.sqrt(x + 1);
+        if (x < 0) throw new AssertionError();
+    }
+
+    private static void awaitStall(EdtMonitor monitor) throws InterruptedException {
+        for (int i = 0; i < 100 && monitor.getStallCount() == 0; i++) Thread.sleep(50);
+    }
+
+    @Test
+    public void recordsStallWithItsHandler() throws Exception {
+        Path log = tmp.getRoot().toPath().resolve("logs").resolve("edt-stalls.log"); // folder made on first stall
+        EdtMonitor monitor = new EdtMonitor(100, log);
+        monitor.start();
+        try {
+            Thread.sleep(250);                                   // a few quick heartbeats first
+            assertEquals(0, monitor.getStallCount());
+            EventQueue.invokeAndWait(() -> slowHandler(700));
+            awaitStall(monitor);
+        } finally {
+            monitor.close();
+        }
+
+        assertEquals(1, monitor.getStallCount());
+        assertTrue(monitor.getMaxLatencyMillis() >= 100);
+        String text = new String(Files.readAllBytes(log), StandardCharsets.UTF_8);
+        assertTrue(text, text.contains("EDT stalled"));
+        assertTrue(text, text.contains("slowHandler"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void thresholdMustBePositive() {
+        new EdtMonitor(0, null);
+    }
+}
@@ -0,0 +1,30 @@
+package smartstudentplatform.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CsvReaderTest {
+
+    @Test
+    public void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "ID,Name\r\nS1,\"Doe, \"\"JJ\"\"\"\nS2,\"two\nlines\"\n"));
+        assertEquals(List.of("ID", "Name"), csv.next());
+        assertEquals(List.of("S1", "Doe, \"JJ\""), csv.next());
+        assertEquals(List.of("S2", "two\nlines"), csv.next());
+        assertEquals(3, csv.getLineNumber());
+        assertNull(csv.next());
+    }
+
+    @Test
+    public void escapeRoundTrips() throws IOException {
+        String name = "O'Neil, \"Ada\"\nJr";
+        CsvReader csv = new CsvReader(new StringReader(CsvReader.escape(name) + ",x\n"));
+        assertEquals(List.of(name, "x"), csv.next());
+    }
+}
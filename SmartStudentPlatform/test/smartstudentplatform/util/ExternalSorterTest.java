@@ -0,0 +1,83 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ExternalSorterTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private StudentManager roster(int n) {
+        StudentManager m = new StudentManager();
+        Random random = new Random(42);
+        for (int i = 0; i < n; i++) {
+            // few distinct CGPAs so stability shows; some names need quoting, with line breaks
+            String name = i % 7 == 0 ? "Doe, \"J\"\nrow " + i : "Name " + random.nextInt(1000);
+            Student s = new Student("S" + i, name, random.nextInt(10) / 2.0);
+            if (i % 3 == 0) s.addGrade("CS:101", "Intro; part 1", i % 100);
+            m.addStudent(s);
+        }
+        return m;
+    }
+
+    private List<String> sortedIds(File in, Comparator<Student> order, long runBytes) throws Exception {
+        File out = new File(tmp.getRoot(), "out.csv"), runs = tmp.newFolder();
+        assertEquals(1000, ExternalSorter.sort(in, out, order, runBytes, runs));
+        assertEquals(0, runs.list().length); // spilled runs are deleted
+
+        StudentManager sorted = new StudentManager();
+        FileManager.loadAllData(sorted, out, false);
+        List<String> ids = new ArrayList<>();
+        for (Student s : sorted.getAll()) ids.add(s.getId());
+        assertTrue(out.delete());
+        return ids;
+    }
+
+    private static List<String> expected(StudentManager m, Comparator<Student> order) {
+        List<Student> copy = new ArrayList<>(m.getAll());
+        copy.sort(order); // stable, like the sorter
+        List<String> ids = new ArrayList<>();
+        for (Student s : copy) ids.add(s.getId());
+        return ids;
+    }
+
+    @Test
+    public void matchesStableInMemorySortForEveryRunSize() throws Exception {
+        StudentManager m = roster(1000);
+        File in = tmp.newFile("in.csv");
+        FileManager.saveAllData(m, in);
+
+        for (Comparator<Student> order : List.of(Algorithms.BY_CGPA_DESC, Algorithms.BY_NAME, Algorithms.BY_ID)) {
+            List<String> want = expected(m, order);
+            assertEquals(want, sortedIds(in, order, Long.MAX_VALUE)); // one in-memory run
+            assertEquals(want, sortedIds(in, order, 20_000));         // a few runs, one merge
+            assertEquals(want, sortedIds(in, order, 1));              // a run per row: multi-pass merge
+        }
+    }
+
+    @Test
+    public void rowsAreCopiedUnchanged() throws Exception {
+        StudentManager m = roster(1000);
+        File in = tmp.newFile("in.csv"), out = new File(tmp.getRoot(), "out.csv");
+        FileManager.saveAllData(m, in);
+        ExternalSorter.sort(in, out, Algorithms.BY_NAME, 1, tmp.newFolder());
+
+        StudentManager sorted = new StudentManager();
+        FileManager.loadAllData(sorted, out, false);
+        Student s = sorted.getById("S693");
+        assertEquals(m.getById("S693").getName(), s.getName());
+        assertEquals("Intro; part 1", s.getCourseName("CS:101"));
+        assertEquals(93.0, s.getGrades().get("CS:101"), 0);
+    }
+}
@@ -0,0 +1,112 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.DuplicatePolicy;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FileManagerImportTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private static Student student(String id, String name, String course, double score) {
+        Student s = new Student(id, name, 3.0);
+        s.addGrade(course, course + " name", score);
+        return s;
+    }
+
+    private File saved(String name, Student... students) throws IOException {
+        StudentManager m = new StudentManager();
+        for (Student s : students) m.addStudent(s, DuplicatePolicy.REPLACE);
+        File f = tmp.newFile(name);
+        FileManager.saveAllData(m, f);
+        return f;
+    }
+
+    private List<File> departments() throws IOException {
+        return Arrays.asList(
+                saved("cs.csv", student("S1", "Ada", "CS101", 80), student("S2", "Bo", "CS101", 60)),
+                saved("ma.csv", student("s1", "Ada L.", "MA101", 70), student("S3", "Cy", "MA101", 90)),
+                saved("ph.csv", student("S1", "Ada Lovelace", "CS101", 85)));
+    }
+
+    @Test
+    public void replaceKeepsLaterFilesRecord() throws IOException {
+        StudentManager m = new StudentManager();
+        int duplicates = FileManager.loadAllData(m, departments(), DuplicatePolicy.REPLACE);
+
+        assertEquals(2, duplicates);
+        assertEquals(3, m.size());
+        Student s1 = m.getById("s1");
+        assertEquals("Ada Lovelace", s1.getName());
+        assertEquals(Map.of("CS101", 85.0), s1.getGrades());
+        assertEquals("S1", m.getAll().get(0).getId()); // keeps the place of the first record
+    }
+
+    @Test
+    public void mergeUnitesGradesWithLaterScoresWinning() throws IOException {
+        StudentManager m = new StudentManager();
+        int duplicates = FileManager.loadAllData(m, departments(), DuplicatePolicy.MERGE);
+
+        assertEquals(2, duplicates);
+        assertEquals(3, m.size());
+        Student s1 = m.getById("S1");
+        assertEquals("Ada Lovelace", s1.getName());
+        assertEquals(Map.of("CS101", 85.0, "MA101", 70.0), s1.getGrades());
+    }
+
+    @Test
+    public void countsRowsRepeatedWithinOneFile() throws IOException {
+        File f = tmp.newFile("repeats.csv");
+        Files.write(f.toPath(), Arrays.asList(
+                "ID,Name,CGPA,Grades", "S1,Ada,3.0,", "S1,Ada,3.5,", "S2,Bo,2.0,"));
+        StudentManager m = new StudentManager();
+
+        assertEquals(1, FileManager.loadAllData(m, Arrays.asList(f), DuplicatePolicy.REPLACE));
+        assertEquals(2, m.size());
+        assertEquals(3.5, m.getById("S1").getCgpa(), 0);
+    }
+
+    @Test
+    public void stagedImportLeavesRosterAloneUntilSwap() throws IOException {
+        StudentManager m = new StudentManager(true);
+        m.addStudent(new Student("OLD", "Kept", 2.0));
+
+        StudentManager.Staging staging = FileManager.stageAll(m, departments(), DuplicatePolicy.REPLACE);
+        assertEquals(1, m.size());
+        assertNotNull(m.getById("OLD"));
+
+        staging.swapIn();
+        assertEquals(3, m.size());
+        assertNull(m.getById("OLD"));
+        assertTrue(m.undo()); // the import is one undo step
+        assertEquals(1, m.size());
+        assertNotNull(m.getById("OLD"));
+    }
+
+    @Test
+    public void unreadableFileFailsWithoutTouchingRoster() throws IOException {
+        StudentManager m = new StudentManager();
+        m.addStudent(new Student("OLD", "Kept", 2.0));
+        List<File> files = Arrays.asList(saved("cs.csv", student("S1", "Ada", "CS101", 80)),
+                new File(tmp.getRoot(), "missing.csv"));
+        try {
+            FileManager.loadAllData(m, files, DuplicatePolicy.REPLACE);
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("missing.csv"));
+        }
+        assertEquals(1, m.size());
+    }
+}
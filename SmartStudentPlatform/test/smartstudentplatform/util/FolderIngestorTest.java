@@ -0,0 +1,114 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatformm.SmartStudentBatch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+public class FolderIngestorTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private void append(Path file, String rows) throws IOException {
+        Files.write(file, rows.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private FolderIngestor ingestor(Path folder, StudentManager m) throws IOException {
+        return new FolderIngestor(folder, m, Runnable::run);
+    }
+
+    @Test
+    public void readsOnlyAppendedRowsIncludingQuotedLineBreaks() throws Exception {
+        Path folder = tmp.newFolder().toPath(), students = folder.resolve("students.csv");
+        append(students, "S1,Ada,3.5\nS2,\"Obi,\nJr\",4.0\n");
+        StudentManager m = new StudentManager();
+        FolderIngestor ingestor = ingestor(folder, m);
+        assertEquals(2, ingestor.scanAll());
+        assertEquals("Obi,\nJr", m.getById("S2").getName());
+
+        append(students, "S3,Chi,2.0\nS4,Half");          // the unfinished row waits for its newline
+        assertEquals(1, ingestor.scanAll());
+        append(students, ",3.0\n");
+        assertEquals(1, ingestor.scanAll());
+        assertEquals(3.0, m.getById("S4").getCgpa(), 0);
+        assertEquals(0, ingestor.scanAll());
+    }
+
+    @Test
+    public void checkpointAdvancesOnlyWhenCommitted() throws Exception {
+        Path folder = tmp.newFolder().toPath();
+        append(folder.resolve("students.csv"), "S1,Ada,3.5\nS2,Bola,4.0\n");
+        FolderIngestor first = ingestor(folder, new StudentManager());
+        assertEquals(2, first.scanAll());
+        assertFalse(Files.exists(folder.resolve(FolderIngestor.CHECKPOINT_FILE)));
+
+        StudentManager restarted = new StudentManager();       // roster never saved: rows come again
+        assertEquals(2, ingestor(folder, restarted).scanAll());
+
+        first.commitCheckpoint();                             // as after a save
+        assertEquals(0, ingestor(folder, new StudentManager()).scanAll());
+    }
+
+    @Test
+    public void resultsWaitForTheirStudent() throws Exception {
+        Path folder = tmp.newFolder().toPath();
+        Path results = folder.resolve("results.csv"), students = folder.resolve("students.csv");
+        append(students, "S1,Ada,3.5\n");
+        append(results, "S1,CS101,80\nS9,CS101,50\nS9,CS101,70\nS1,MA101,60\n");
+        StudentManager m = new StudentManager();
+        FolderIngestor ingestor = ingestor(folder, m);
+        ingestor.scanAll();
+        assertEquals(2, ingestor.getWaitingRows());
+        assertEquals(0, ingestor.getRejectedRows());
+        assertEquals(2, m.getById("S1").getGrades().size());
+
+        // a checkpoint taken now must not skip the waiting rows
+        ingestor.commitCheckpoint();
+        StudentManager saved = new StudentManager();           // what the save held
+        saved.addStudent("S1", "Ada", 3.5);
+        FolderIngestor restarted = ingestor(folder, saved);
+        restarted.scanAll();
+        assertEquals(2, restarted.getWaitingRows());
+
+        append(students, "S9,Late,3.0\n");
+        ingestor.scanAll();
+        assertEquals(0, ingestor.getWaitingRows());
+        assertEquals(70.0, m.getById("S9").getGrades().get("CS101"), 0); // applied in file order
+        ingestor.commitCheckpoint();
+        assertEquals(0, ingestor(folder, new StudentManager()).scanAll());
+    }
+
+    @Test
+    public void batchIngestCommitsOnlyWithASave() throws Exception {
+        Path folder = tmp.newFolder().toPath();
+        append(folder.resolve("students.csv"), "S1,Ada,3.5\n");
+        File roster = new File(tmp.getRoot(), "roster.csv");
+        Path checkpoint = folder.resolve(FolderIngestor.CHECKPOINT_FILE);
+
+        PrintStream out = System.out, err = System.err;
+        System.setOut(new PrintStream(new ByteArrayOutputStream()));
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            assertEquals(0, SmartStudentBatch.run(new String[]{"ingest", folder.toString()}));
+            assertFalse(Files.exists(checkpoint));
+            assertEquals(0, SmartStudentBatch.run(
+                    new String[]{"ingest", folder.toString(), "save", roster.getPath()}));
+            assertTrue(Files.exists(checkpoint));
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+    }
+}
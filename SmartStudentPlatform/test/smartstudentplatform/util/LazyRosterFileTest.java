@@ -0,0 +1,71 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.*;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LazyRosterFileTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private File saved(int n) throws IOException {
+        StudentManager m = new StudentManager();
+        for (int i = 0; i < n; i++) {
+            Student s = new Student("S" + i, "Name, " + i, 3.0);
+            s.addGrade("CS101", "Intro", 50 + i % 50);
+            s.addGrade("MA101", "Calc", 60);
+            m.addStudent(s);
+        }
+        File f = tmp.newFile("roster.csv");
+        FileManager.saveAllData(m, f);
+        return f;
+    }
+
+    @Test
+    public void gradesParsedOnFirstUse() throws IOException {
+        List<Student> students = LazyRosterFile.load(saved(10));
+        assertEquals(10, students.size());
+        LazyRosterFile.LazyStudent s = (LazyRosterFile.LazyStudent) students.get(3);
+        assertEquals("Name, 3", s.getName());
+        assertFalse(s.isLoaded());
+        assertEquals(53.0, s.getGrades().get("CS101"), 0);
+        assertEquals("Calc", s.getCourseName("MA101"));
+        assertTrue(s.isLoaded());
+    }
+
+    @Test
+    public void lazyLoadThenSaveToSameFile() throws Exception {
+        File f = saved(2000);
+        StudentManager m = new StudentManager();
+        FileManager.loadAllData(m, f, true);
+        FileManager.saveAllData(m, f);   // the grades are still mapped from f while it is rewritten
+
+        StudentManager reloaded = new StudentManager();
+        FileManager.loadAllData(reloaded, f, false);
+        assertEquals(2000, reloaded.size());
+        assertEquals(Map.of("CS101", 99.0, "MA101", 60.0), reloaded.getById("S1999").getGrades());
+        assertEquals(1, tmp.getRoot().list().length); // no temporary file left behind
+    }
+
+    @Test
+    public void serializesAsPlainStudentWithGrades() throws Exception {
+        Student lazy = LazyRosterFile.load(saved(1)).get(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(lazy);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Student copy = (Student) in.readObject();
+            assertSame(Student.class, copy.getClass());
+            assertEquals(Map.of("CS101", 50.0, "MA101", 60.0), copy.getGrades());
+        }
+    }
+}
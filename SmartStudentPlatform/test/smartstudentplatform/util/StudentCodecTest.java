@@ -0,0 +1,105 @@
+package smartstudentplatform.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StudentCodecTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    /** A student whose every text field needs quoting somewhere. */
+    private static Student awkward(String id) {
+        Student s = new Student(id, "O\"Brien, Jo\nline two", 4.25);
+        s.addGrade("CS:101", "Data; \"Structures\"", 71.5);
+        s.addGrade("MA101", "Calc, part 1", 60);
+        s.addGrade("PH101", "Physics", 0.1);
+        return s;
+    }
+
+    private static void assertSameStudent(Student expected, Student actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getCgpa(), actual.getCgpa(), 0);
+        assertEquals(expected.getGrades(), actual.getGrades());
+        for (String code : expected.getGrades().keySet()) {
+            assertEquals(expected.getCourseName(code), actual.getCourseName(code));
+        }
+    }
+
+    @Test
+    public void roundTripsSeparatorsQuotesAndLineBreaks() {
+        Student s = awkward("S1");
+        assertSameStudent(s, Student.fromCSV(s.toCSV()));
+    }
+
+    @Test
+    public void plainRowsAreUnquoted() {
+        Student s = new Student("S1", "Ada", 3.5);
+        s.addGrade("CS101", "Intro", 80);
+        assertEquals("S1,Ada,3.5,CS101:80.0:Intro", s.toCSV());
+    }
+
+    @Test
+    public void rowsAreRfc4180() throws IOException {
+        Student s = awkward("S1");
+        try (CsvReader csv = new CsvReader(new StringReader(s.toCSV() + "\n"))) {
+            List<String> fields = csv.next();
+            assertEquals(4, fields.size());
+            assertEquals("S1", fields.get(0));
+            assertEquals(s.getName(), fields.get(1));
+            assertEquals("4.25", fields.get(2));
+
+            Student grades = new Student("S1", "", 0);
+            grades.addGrades(fields.get(3));
+            assertEquals(s.getGrades(), grades.getGrades());
+            assertEquals("Data; \"Structures\"", grades.getCourseName("CS:101"));
+        }
+    }
+
+    @Test
+    public void savedFileLoadsEagerlyLazilyAndThroughCsvReader() throws Exception {
+        StudentManager m = new StudentManager();
+        m.addStudent(awkward("S1"));
+        m.addStudent(new Student("S2", "Plain", 3.0));
+        m.addStudent(awkward("S3"));
+        File f = tmp.newFile("roster.csv");
+        FileManager.saveAllData(m, f);
+
+        for (boolean lazy : new boolean[]{false, true}) {
+            StudentManager loaded = new StudentManager();
+            FileManager.loadAllData(loaded, f, lazy);
+            assertEquals(3, loaded.size());
+            assertSameStudent(m.getById("S1"), loaded.getById("S1"));
+            assertSameStudent(m.getById("S3"), loaded.getById("S3"));
+            assertEquals(3, loaded.getById("S3").gradeCount());
+        }
+
+        StudentManager viaCsv = new StudentManager();
+        viaCsv.loadFromCSV(f);
+        assertSameStudent(m.getById("S3"), viaCsv.getById("S3"));
+        try (CsvReader csv = new CsvReader(new FileReader(f, StandardCharsets.UTF_8))) {
+            int records = 0;
+            while (csv.next() != null) records++;
+            assertEquals(4, records); // header and three rows, despite the line breaks in names
+        }
+    }
+
+    @Test
+    public void oldUnquotedRowsStillRead() {
+        Student s = Student.fromCSV("S1,Ada,3.5,CS101:80.0:Intro;MA101:70");
+        assertEquals(80.0, s.getGrades().get("CS101"), 0);
+        assertEquals("Unknown Course", s.getCourseName("MA101"));
+    }
+}
@@ -0,0 +1,93 @@
+package smartstudentplatformm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import smartstudentplatform.core.StudentManager;
+import smartstudentplatform.model.Student;
+import smartstudentplatform.util.FileManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class SmartStudentBatchTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private PrintStream stdout, stderr;
+
+    @Before
+    public void captureOutput() {
+        stdout = System.out;
+        stderr = System.err;
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8));
+        System.setErr(new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void restoreOutput() {
+        System.setOut(stdout);
+        System.setErr(stderr);
+    }
+
+    private String[] lines() {
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    private File roster() throws Exception {
+        StudentManager m = new StudentManager();
+        m.addStudent(new Student("S1", "Ada", 3.1));
+        Student top = new Student("S2", "Bola", 4.8);
+        top.addGrade("CS101", "Intro", 90);
+        m.addStudent(top);
+        m.addStudent(new Student("S3", "Chi", 2.5));
+        File f = tmp.newFile("roster.csv");
+        FileManager.saveAllData(m, f);
+        return f;
+    }
+
+    @Test
+    public void runsStepsInOrderWithOneJsonLineEach() throws Exception {
+        File in = roster(), saved = new File(tmp.getRoot(), "sorted.csv");
+        int code = SmartStudentBatch.run(new String[]{
+                "load", in.getPath(), "sort", "cgpa", "top", "cgpa", "average", "CS101", "save", saved.getPath()});
+
+        assertEquals(0, code);
+        String[] lines = lines();
+        assertEquals(6, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("{\"step\":\"load\",\"args\":["));
+        assertTrue(lines[0], lines[0].contains("\"students\":3"));
+        assertTrue(lines[2], lines[2].contains("\"top\":\"S2\""));
+        assertTrue(lines[3], lines[3].contains("\"average\":90"));
+        assertTrue(lines[5], lines[5].startsWith("{\"step\":\"total\""));
+
+        StudentManager reloaded = new StudentManager();
+        FileManager.loadAllData(reloaded, saved, false);
+        assertEquals("S2", reloaded.getAll().get(0).getId()); // saved in the sorted order
+    }
+
+    @Test
+    public void failedStepReportsErrorAndStops() {
+        int code = SmartStudentBatch.run(new String[]{"load", new File(tmp.getRoot(), "missing.csv").getPath(),
+                "sort", "id"});
+        assertEquals(1, code);
+        String[] lines = lines();
+        assertEquals(1, lines.length);
+        assertTrue(lines[0], lines[0].contains("\"error\":"));
+    }
+
+    @Test
+    public void badUsageExitsWithTwo() {
+        assertEquals(2, SmartStudentBatch.run(new String[0]));
+        assertEquals(2, SmartStudentBatch.run(new String[]{"frobnicate"}));
+        assertEquals(2, SmartStudentBatch.run(new String[]{"xsort", "in.csv"}));
+        assertEquals("", out.toString(StandardCharsets.UTF_8));
+    }
+}